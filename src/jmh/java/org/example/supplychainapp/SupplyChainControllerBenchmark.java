@@ -0,0 +1,121 @@
+package org.example.supplychainapp;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.example.supplychainapp.remote.RemoteInstanceBalancer;
+import org.example.supplychainapp.remote.RemoteResilienceInterceptor;
+import org.example.supplychainapp.service.BenchmarkStubs;
+import org.example.supplychainapp.service.BulkProductService;
+import org.example.supplychainapp.service.ChangeStreamService;
+import org.example.supplychainapp.service.FabricService;
+import org.example.supplychainapp.service.FabricServiceException;
+import org.example.supplychainapp.service.LedgerReadCache;
+import org.example.supplychainapp.service.LedgerConnection;
+import org.example.supplychainapp.service.LedgerView;
+import org.example.supplychainapp.service.MultiGetService;
+import org.example.supplychainapp.service.PeerQueryHandlerFactory;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller request-to-response mapping and the exception classification helpers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SupplyChainControllerBenchmark {
+
+    private SupplyChainController controller;
+    private BulkProductService bulkProductService;
+    private MultiGetService multiGetService;
+    private ChangeStreamService changeStreamService;
+    private Product product;
+    private ContractException chaincodeNotFound;
+    private FabricServiceException notFound;
+    private FabricServiceException genericFailure;
+
+    @Setup
+    public void setUp() {
+        FabricService fabricService = BenchmarkStubs.localService(false);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        bulkProductService = new BulkProductService(fabricService, 1, false);
+        multiGetService = new MultiGetService(fabricService, 8, false);
+        LedgerView ledgerView = new LedgerView(beans.getBeanProvider(LedgerConnection.class), false, "", "", "", 1000, 30000);
+        changeStreamService = new ChangeStreamService(ledgerView, 1, 1, 1000, 0, false);
+        controller = new SupplyChainController(fabricService, new LedgerReadCache(false, 1, 1), ledgerView,
+                bulkProductService, multiGetService, changeStreamService,
+                PoolingHttpClientConnectionManagerBuilder.create().build(),
+                new RemoteResilienceInterceptor(new SimpleClientHttpRequestFactory(), new SimpleMeterRegistry(),
+                        new RemoteResilienceInterceptor.Settings(5, 5000, Set.of(), 0.95, 10, 100), null, false),
+                new RemoteInstanceBalancer(beans.getBeanProvider(DiscoveryClient.class),
+                        new RemoteInstanceBalancer.Settings("supplychain-service", "peak-ewma", 5000, 3, 10000)),
+                beans.getBeanProvider(PeerQueryHandlerFactory.class));
+        product = new Product();
+        product.setProductId("p1");
+        product.setProductName("Widget");
+        product.setCategory("tools");
+        product.setQuantity(42);
+        chaincodeNotFound = new ContractException("Product p1 does not exist");
+        notFound = new FabricServiceException("Failed to read product: id=p1: Product p1 does not exist", chaincodeNotFound);
+        genericFailure = new FabricServiceException("Failed to read product: id=p1: io exception");
+    }
+
+    @TearDown
+    public void tearDown() {
+        bulkProductService.shutdown();
+        multiGetService.shutdown();
+        changeStreamService.shutdown();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> queryProduct() {
+        return controller.queryAsset("p1", null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> queryProductRawJson() {
+        return controller.queryAsset("p1", Constants.RAW_JSON_MEDIA_TYPE);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> createProduct() {
+        return controller.createAsset(product, null);
+    }
+
+    // Classifying the chaincode error and creating the (stackless) exception, as FabricService does per failure
+    @Benchmark
+    public FabricServiceException wrapNotFound() {
+        return new FabricServiceException("Failed to read product: id=p1: Product p1 does not exist", chaincodeNotFound);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> handleNotFoundException() {
+        return controller.handleServiceException(notFound, "Product not found", "p1");
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> handleGenericException() {
+        return controller.handleServiceException(genericFailure, Constants.FAILED_CREATE_PRODUCT, "p1");
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.supplychainapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hyperledger.fabric.gateway.Contract;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Stubbed Fabric and remote back ends so benchmarks measure only what this service adds.
+ */
+public final class BenchmarkStubs {
+
+    public static final String PRODUCT_JSON =
+            "{\"productId\":\"p1\",\"productName\":\"Widget\",\"category\":\"tools\",\"quantity\":42}";
+    public static final String REMOTE_PRODUCT_BODY = "{\"product\":" + quote(PRODUCT_JSON) + "}";
+    public static final String REMOTE_MESSAGE_BODY = "{\"message\":\"Product created successfully\"}";
+
+    private BenchmarkStubs() { /* prevent instantiation */ }
+
+    private static String quote(String s) {
+        return "\"" + s.replace("\"", "\\\"") + "\"";
+    }
+
+    // Contract whose submit/evaluate calls return the given bytes immediately
+    public static Contract contract(byte[] response) {
+        return (Contract) Proxy.newProxyInstance(Contract.class.getClassLoader(), new Class<?>[]{Contract.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "submitTransaction", "evaluateTransaction" -> response;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubContract";
+                    default -> null;
+                });
+    }
+
+    // RestTemplate that answers every request with the given JSON body and 200 OK
+    public static RestTemplate restTemplate(String body) {
+        byte[] bytes = body.getBytes();
+        return new RestTemplate((uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            MockClientHttpResponse response = new MockClientHttpResponse(bytes, HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            request.setResponse(response);
+            return request;
+        });
+    }
+
+    public static FabricService localService(boolean cacheEnabled) {
+        return new FabricService(GatewayPool.of(contract(PRODUCT_JSON.getBytes())), false, "", false, "", restTemplate(REMOTE_MESSAGE_BODY),
+                new LedgerReadCache(cacheEnabled, 10_000, 60), tracker(), writeSequencer(), loadShedder(), metrics());
+    }
+
+    public static FabricService remoteService(String body) {
+        return new FabricService(GatewayPool.of(contract(PRODUCT_JSON.getBytes())), true, "http://remote.local", false, "", restTemplate(body),
+                new LedgerReadCache(false, 10_000, 60), tracker(), writeSequencer(), loadShedder(), metrics());
+    }
+
+    public static FabricMetrics metrics() {
+        return new FabricMetrics(new SimpleMeterRegistry(), false);
+    }
+
+    public static WriteSequencer writeSequencer() {
+        return new WriteSequencer(true, 256, 3, 25, 400, metrics());
+    }
+
+    // Limits high enough that a benchmark thread is never shed, so only the limiter's overhead is measured
+    public static LoadShedder loadShedder() {
+        return new LoadShedder(true, 10_000, 10_000, 10_000, 10_000, 4, 1.5, 0.2, 0.9, 1, metrics());
+    }
+
+    public static TransactionTracker tracker() {
+        return new TransactionTracker(new StaticListableBeanFactory().getBeanProvider(LedgerConnection.class), 10, 1000);
+    }
+}
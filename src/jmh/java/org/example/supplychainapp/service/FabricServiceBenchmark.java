@@ -0,0 +1,69 @@
+package org.example.supplychainapp.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call overhead of FabricService on top of a zero-latency Contract / RestTemplate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FabricServiceBenchmark {
+
+    private FabricService local;
+    private FabricService localCached;
+    private FabricService remoteRead;
+    private FabricService remoteWrite;
+
+    @Setup
+    public void setUp() {
+        local = BenchmarkStubs.localService(false);
+        localCached = BenchmarkStubs.localService(true);
+        remoteRead = BenchmarkStubs.remoteService(BenchmarkStubs.REMOTE_PRODUCT_BODY);
+        remoteWrite = BenchmarkStubs.remoteService(BenchmarkStubs.REMOTE_MESSAGE_BODY);
+    }
+
+    @Benchmark
+    public byte[] localReadProduct() throws FabricServiceException {
+        return local.readProduct("p1");
+    }
+
+    @Benchmark
+    public byte[] localReadProductCached() throws FabricServiceException {
+        return localCached.readProduct("p1");
+    }
+
+    @Benchmark
+    public byte[] localCreateProduct() throws FabricServiceException {
+        return local.createProduct("p1", "Widget", "tools", "42");
+    }
+
+    @Benchmark
+    public byte[] localPlaceOrder() throws FabricServiceException {
+        return local.placeOrder("p1", "1");
+    }
+
+    @Benchmark
+    public byte[] remoteReadProduct() throws FabricServiceException {
+        return remoteRead.readProduct("p1");
+    }
+
+    @Benchmark
+    public byte[] remoteCreateProduct() throws FabricServiceException {
+        return remoteWrite.createProduct("p1", "Widget", "tools", "42");
+    }
+}
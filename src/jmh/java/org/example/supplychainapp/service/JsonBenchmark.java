@@ -0,0 +1,54 @@
+package org.example.supplychainapp.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization through FabricService's own ObjectMapper helpers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private FabricService service;
+    private Map<String, Object> createPayload;
+    private ResponseEntity<String> remoteResponse;
+
+    @Setup
+    public void setUp() {
+        service = BenchmarkStubs.localService(false);
+        createPayload = new HashMap<>();
+        createPayload.put("productId", "p1");
+        createPayload.put("productName", "Widget");
+        createPayload.put("category", "tools");
+        createPayload.put("quantity", 42);
+        remoteResponse = ResponseEntity.ok(BenchmarkStubs.REMOTE_MESSAGE_BODY);
+    }
+
+    @Benchmark
+    public String serializeCreatePayload() throws FabricServiceException {
+        return service.toJson(createPayload);
+    }
+
+    @Benchmark
+    public String parseRemoteMessage() throws FabricServiceException {
+        return service.extractMessageFromBody(remoteResponse);
+    }
+}
@@ -10,6 +10,7 @@ public final class Constants {
     // Common response keys
     public static final String MESSAGE = "message";
     public static final String ERROR = "error";
+    public static final String CODE = "code";
 
     // Common messages / formats
     public static final String PRODUCT_CREATED = "Product created successfully";
@@ -25,6 +26,7 @@ public final class Constants {
 
     public static final String PRODUCT_NOT_FOUND_FMT = "Product with id: %s is not found";
     public static final String PRODUCT_ALREADY_EXISTS_FMT = "Product with id: %s already exists";
+    public static final String SHIPMENT_ALREADY_EXISTS_FMT = "Shipment with id: %s already exists";
 
     // Response body keys
     public static final String PRODUCT_KEY = "product";
@@ -45,6 +47,21 @@ public final class Constants {
     public static final String LOG_NOT_FOUND = "Log not found";
     public static final String FAILED_PLACE_ORDER = "Failed to place order";
 
+    // Async submit
+    public static final String TX_ID = "txId";
+    public static final String PREFER_RESPOND_ASYNC = "respond-async";
+
+    // Versioned media type for responses that embed ledger JSON as-is instead of as an escaped string
+    public static final String RAW_JSON_MEDIA_TYPE = "application/vnd.supplychain.v2+json";
+
+    // Materialized view queries
+    public static final String PRODUCTS_KEY = "products";
+    public static final String SHIPMENTS_KEY = "shipments";
+    public static final String COUNT = "count";
+    public static final String LEDGER_HEIGHT = "ledgerHeight";
+    public static final String VIEW_UNAVAILABLE = "Materialized view is not available in this mode";
+    public static final String VIEW_LOADING = "Materialized view is still loading";
+
     // Validation messages
     public static final String MISSING_PRODUCT_ID = "Missing required field: productId";
 
@@ -2,14 +2,16 @@ package org.example.supplychainapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
-@EnableDiscoveryClient
 public class SupplyChainAppApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(SupplyChainAppApplication.class, args);
+        SpringApplication app = new SpringApplication(SupplyChainAppApplication.class);
+        // Startup steps with timings at /actuator/startup, to see where boot time goes
+        app.setApplicationStartup(new BufferingApplicationStartup(4096));
+        app.run(args);
     }
 
 }
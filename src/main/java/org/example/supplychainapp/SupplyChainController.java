@@ -1,41 +1,96 @@
 package org.example.supplychainapp;
 
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.example.supplychainapp.conf.RequestLogSampler;
+import org.example.supplychainapp.remote.RemoteInstanceBalancer;
+import org.example.supplychainapp.remote.RemoteResilienceInterceptor;
+import org.example.supplychainapp.service.AuditLogPage;
+import org.example.supplychainapp.service.BulkProductService;
+import org.example.supplychainapp.service.ChangeStreamService;
+import org.example.supplychainapp.service.ErrorCode;
 import org.example.supplychainapp.service.FabricService;
 import org.example.supplychainapp.service.FabricServiceException;
+import org.example.supplychainapp.service.LedgerReadCache;
+import org.example.supplychainapp.service.LedgerView;
+import org.example.supplychainapp.service.LoadShedException;
+import org.example.supplychainapp.service.MultiGetService;
+import org.example.supplychainapp.service.PeerQueryHandlerFactory;
+import org.example.supplychainapp.service.TransactionTracker;
+import org.hyperledger.fabric.gateway.ContractException;
 import org.example.supplychainapp.service.ProductAlreadyExistsException;
-import org.example.supplychainapp.service.ProductNotFoundException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/fabric/assets")
 public class SupplyChainController {
 
     private final FabricService fabricService;
+    private final LedgerReadCache readCache;
+    private final LedgerView ledgerView;
+    private final BulkProductService bulkProductService;
+    private final MultiGetService multiGetService;
+    private final ChangeStreamService changeStreamService;
+    private final PoolingHttpClientConnectionManager remoteConnectionManager;
+    private final RemoteResilienceInterceptor remoteResilience;
+    private final RemoteInstanceBalancer remoteBalancer;
+    private final ObjectProvider<PeerQueryHandlerFactory> peerSelection;
     private static final Logger logger = LoggerFactory.getLogger(SupplyChainController.class);
 
-    public SupplyChainController(FabricService fabricService) {
-        this.fabricService = fabricService;
-    }
+    @Value("${supplychain.bulk.max-items:5000}")
+    private int bulkMaxItems;
 
-    // Helper to determine if an exception indicates a missing product
-    private boolean isProductNotFound(Throwable e) {
-        if (e == null || e.getMessage() == null) return false;
-        String msg = e.getMessage().toLowerCase();
-        return msg.contains("product not found") || msg.contains("not found") || msg.contains("does not exist") || msg.contains("not exist");
-    }
+    @Value("${supplychain.multi-get.max-ids:500}")
+    private int multiGetMaxIds;
+
+    @Value("${supplychain.async-submit.enabled:true}")
+    private boolean asyncSubmitEnabled;
+
+    @Value("${supplychain.audit-log.default-page-size:100}")
+    private int auditLogDefaultPageSize;
 
-    // Helper to determine if an exception indicates the product already exists
-    private boolean isProductAlreadyExists(Throwable e) {
-        if (e == null || e.getMessage() == null) return false;
-        String msg = e.getMessage().toLowerCase();
-        return msg.contains("already exists") || msg.contains("already exists.");
+    @Value("${supplychain.audit-log.max-page-size:1000}")
+    private int auditLogMaxPageSize;
+
+    public SupplyChainController(FabricService fabricService, LedgerReadCache readCache, LedgerView ledgerView,
+                                 BulkProductService bulkProductService, MultiGetService multiGetService,
+                                 ChangeStreamService changeStreamService,
+                                 PoolingHttpClientConnectionManager remoteConnectionManager,
+                                 RemoteResilienceInterceptor remoteResilience,
+                                 RemoteInstanceBalancer remoteBalancer,
+                                 ObjectProvider<PeerQueryHandlerFactory> peerSelection) {
+        this.fabricService = fabricService;
+        this.readCache = readCache;
+        this.ledgerView = ledgerView;
+        this.bulkProductService = bulkProductService;
+        this.multiGetService = multiGetService;
+        this.changeStreamService = changeStreamService;
+        this.remoteConnectionManager = remoteConnectionManager;
+        this.remoteResilience = remoteResilience;
+        this.remoteBalancer = remoteBalancer;
+        this.peerSelection = peerSelection;
     }
 
     // Helper to handle HttpStatusCodeException cause and build a ResponseEntity; returns null if not applicable
@@ -49,49 +104,86 @@ public class SupplyChainController {
         return null;
     }
 
-    // Map FabricServiceException to a ResponseEntity with an appropriate status and minimal message
-    private ResponseEntity<Map<String, String>> handleServiceException(FabricServiceException e, String defaultMessage, String idForNotFound) {
-        // If it's a typed exception, prefer that mapping
-        if (e instanceof ProductNotFoundException) {
-            String id = idForNotFound == null ? "" : idForNotFound;
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
-                    Constants.ERROR, String.format(Constants.PRODUCT_NOT_FOUND_FMT, id)
-            ));
-        }
-        if (e instanceof ProductAlreadyExistsException) {
-            String id = idForNotFound == null ? "" : idForNotFound;
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
-                    Constants.ERROR, String.format(Constants.PRODUCT_ALREADY_EXISTS_FMT, id)
-            ));
-        }
+    // Clients opt into async submit per request with the RFC 7240 "Prefer: respond-async" header
+    private boolean wantsAsync(String prefer) {
+        return asyncSubmitEnabled && prefer != null
+                && prefer.toLowerCase().contains(Constants.PREFER_RESPOND_ASYNC)
+                && fabricService.isAsyncSubmitSupported();
+    }
 
-        // Handle HTTP cause if present
-        ResponseEntity<Map<String, String>> httpHandled = handleHttpStatusCause(e.getCause(), defaultMessage);
-        if (httpHandled != null) return httpHandled;
+    // 202 with the Fabric transaction id once the transaction has been handed to the orderer
+    private ResponseEntity<Map<String, String>> accepted(String txId) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/fabric/assets/tx/" + txId))
+                .body(Map.of(
+                        Constants.TX_ID, txId,
+                        Constants.STATUS, TransactionTracker.PENDING
+                ));
+    }
 
-        if (isProductNotFound(e)) {
-            String id = idForNotFound == null ? "" : idForNotFound;
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
-                    Constants.ERROR, String.format(Constants.PRODUCT_NOT_FOUND_FMT, id)
-            ));
-        }
+    // Clients that send Accept: application/vnd.supplychain.v2+json get ledger JSON embedded as-is
+    private boolean wantsRawJson(String accept) {
+        return accept != null && accept.contains(Constants.RAW_JSON_MEDIA_TYPE);
+    }
 
-        if (isProductAlreadyExists(e)) {
-            String id = idForNotFound == null ? "" : idForNotFound;
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
-                    Constants.ERROR, String.format(Constants.PRODUCT_ALREADY_EXISTS_FMT, id)
-            ));
-        }
+    // Builds {"<key>":<ledger JSON>} by copying the ledger bytes, without decoding them to a String or re-escaping
+    private static ResponseEntity<byte[]> rawJson(String key, byte[] ledgerJson) {
+        byte[] prefix = ("{\"" + key + "\":").getBytes(StandardCharsets.UTF_8);
+        byte[] value = ledgerJson == null || ledgerJson.length == 0 ? "null".getBytes(StandardCharsets.UTF_8) : ledgerJson;
+        byte[] body = new byte[prefix.length + value.length + 1];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        System.arraycopy(value, 0, body, prefix.length, value.length);
+        body[body.length - 1] = '}';
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(Constants.RAW_JSON_MEDIA_TYPE))
+                .body(body);
+    }
+
+    // Status comes from the exception's error code; the remote status and body are passed through for
+    // failures that could not be classified (package-private for benchmarks)
+    ResponseEntity<Map<String, String>> handleServiceException(FabricServiceException e, String defaultMessage, String idForNotFound) {
+        String id = idForNotFound == null ? "" : idForNotFound;
+        return handleServiceException(e, defaultMessage, String.format(Constants.PRODUCT_NOT_FOUND_FMT, id),
+                String.format(Constants.PRODUCT_ALREADY_EXISTS_FMT, id));
+    }
 
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
-                Constants.ERROR, defaultMessage
+    // The same mapping for shipments and audit logs, which word not found and already exists their own way
+    private ResponseEntity<Map<String, String>> handleServiceException(FabricServiceException e, String defaultMessage,
+                                                                      String notFoundMessage, String alreadyExistsMessage) {
+        return switch (e.getCode()) {
+            case NOT_FOUND -> errorResponse(ErrorCode.NOT_FOUND, notFoundMessage);
+            case ALREADY_EXISTS -> errorResponse(ErrorCode.ALREADY_EXISTS, alreadyExistsMessage);
+            case FAILED -> {
+                ResponseEntity<Map<String, String>> httpHandled = handleHttpStatusCause(e.getCause(), defaultMessage);
+                yield httpHandled != null ? httpHandled : errorResponse(ErrorCode.FAILED, defaultMessage);
+            }
+            default -> errorResponse(e.getCode(), defaultMessage);
+        };
+    }
+
+    // Shed by the concurrency limiter before reaching the ledger: fail fast and tell the client when to retry
+    private static ResponseEntity<Map<String, String>> shed(LoadShedException e) {
+        return ResponseEntity.status(ErrorCode.OVERLOADED.status())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(Map.of(
+                        Constants.ERROR, e.getMessage(),
+                        Constants.CODE, ErrorCode.OVERLOADED.name()
+                ));
+    }
+
+    // Error body with the code, so remote callers need not parse the message
+    private static ResponseEntity<Map<String, String>> errorResponse(ErrorCode code, String message) {
+        return ResponseEntity.status(code.status()).body(Map.of(
+                Constants.ERROR, message,
+                Constants.CODE, code.name()
         ));
     }
 
     // ========================= CREATE =========================
     @PostMapping("/createProduct")
-    public ResponseEntity<Map<String, String>> createAsset(@RequestBody Product payload) {
-        logger.info("Received request to create product: id={}", payload.getProductId());
+    public ResponseEntity<Map<String, String>> createAsset(@RequestBody Product payload,
+                                                           @RequestHeader(value = "Prefer", required = false) String prefer) {
+        logger.info(RequestLogSampler.REQUEST, "Received request to create product: id={}", payload.getProductId());
         try {
             if (payload.getProductId() == null || payload.getProductId().isBlank()
                     || payload.getProductName() == null || payload.getProductName().isBlank()
@@ -109,28 +201,52 @@ public class SupplyChainController {
             Integer quantity = payload.getQuantity();
 
             // Only invoke service when validated
+            if (wantsAsync(prefer)) {
+                return accepted(fabricService.createProductAsync(productId, name, category, quantity.toString()));
+            }
             fabricService.createProduct(productId, name, category, quantity.toString());
             return ResponseEntity.ok(Map.of(
                 Constants.MESSAGE, Constants.PRODUCT_CREATED
             ));
         } catch (ProductAlreadyExistsException pae) {
             logger.warn("Request failed to create product: id={} already exists", payload.getProductId());
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
-                    Constants.ERROR, String.format(Constants.PRODUCT_ALREADY_EXISTS_FMT, payload.getProductId())
-            ));
+            return errorResponse(ErrorCode.ALREADY_EXISTS, String.format(Constants.PRODUCT_ALREADY_EXISTS_FMT, payload.getProductId()));
         } catch (FabricServiceException e) {
             logger.warn("Request failed to create product: id={} error={}", payload.getProductId(), e.getMessage());
             return handleServiceException(e, Constants.FAILED_CREATE_PRODUCT, payload.getProductId());
+        } catch (LoadShedException e) {
+            return shed(e);
         } catch (Exception e) {
             logger.warn("Request failed to create product: id={} unexpected error={}", payload.getProductId(), e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(Constants.ERROR, Constants.FAILED_CREATE_PRODUCT));
         }
     }
 
+    @PostMapping("/createProducts")
+    public ResponseEntity<Map<String, Object>> createAssets(@RequestBody List<Product> payload) {
+        int count = payload == null ? 0 : payload.size();
+        logger.info(RequestLogSampler.REQUEST, "Received request to bulk create products: count={}", count);
+        if (count == 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    Constants.ERROR, "Request body must be a non-empty array of products"
+            ));
+        }
+        if (count > bulkMaxItems) {
+            logger.warn("Invalid createProducts request: count={} exceeds limit={}", count, bulkMaxItems);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    Constants.ERROR, "Too many products in one request, limit is " + bulkMaxItems
+            ));
+        }
+
+        return summarized(bulkProductService.createProducts(payload),
+                BulkProductService.STATUS_CREATED, BulkProductService.STATUS_ALREADY_EXISTS, BulkProductService.STATUS_FAILED);
+    }
+
     // ========================= QUERY =========================
     @GetMapping("/queryProduct/{productId}")
-    public ResponseEntity<Map<String, String>> queryAsset(@PathVariable String productId) {
-        logger.info("Received request to query product: id={}", productId);
+    public ResponseEntity<?> queryAsset(@PathVariable String productId,
+                                        @RequestHeader(value = "Accept", required = false) String accept) {
+        logger.info(RequestLogSampler.REQUEST, "Received request to query product: id={}", productId);
         try {
             if (productId == null || productId.isBlank()) {
                 logger.warn("Invalid queryProduct request: missing productId");
@@ -140,30 +256,152 @@ public class SupplyChainController {
             }
 
             byte[] result = fabricService.readProduct(productId);
-            String response = new String(result);
+            if (wantsRawJson(accept)) {
+                return rawJson(Constants.PRODUCT_KEY, result);
+            }
+            String response = new String(result, StandardCharsets.UTF_8);
             return ResponseEntity.ok(Map.of(
                 Constants.PRODUCT_KEY, response
             ));
-        } catch (ProductNotFoundException pnfe) {
-            logger.warn("Request failed to query product: id={} not found", productId);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
-                    Constants.ERROR, String.format(Constants.PRODUCT_NOT_FOUND_FMT, productId)
-            ));
         } catch (FabricServiceException e) {
             logger.warn("Request failed to query product: id={} error={}", productId, e.getMessage());
             return handleServiceException(e, "Product not found", productId);
+        } catch (LoadShedException e) {
+            return shed(e);
         } catch (Exception e) {
             logger.warn("Request failed to query product: id={} unexpected error={}", productId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(Constants.ERROR, "Product not found"));
         }
     }
 
+    // Multi-get: one request for many ids, read concurrently; each id is reported as found, not-found or failed
+    @PostMapping("/queryProducts")
+    public ResponseEntity<Map<String, Object>> queryAssets(@RequestBody List<String> productIds) {
+        return multiGet(productIds, Constants.PRODUCTS_KEY, multiGetService::readProducts);
+    }
+
+    @PostMapping("/queryShipments")
+    public ResponseEntity<Map<String, Object>> queryShipments(@RequestBody List<String> shipmentIds) {
+        return multiGet(shipmentIds, Constants.SHIPMENTS_KEY, multiGetService::readShipments);
+    }
+
+    private ResponseEntity<Map<String, Object>> multiGet(List<String> ids, String kind,
+                                                         Function<List<String>, List<Map<String, String>>> reader) {
+        int count = ids == null ? 0 : ids.size();
+        logger.info(RequestLogSampler.REQUEST, "Received request to multi-get {}: count={}", kind, count);
+        if (count == 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    Constants.ERROR, "Request body must be a non-empty array of ids"
+            ));
+        }
+        if (count > multiGetMaxIds) {
+            logger.warn("Invalid multi-get request: count={} exceeds limit={}", count, multiGetMaxIds);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    Constants.ERROR, "Too many ids in one request, limit is " + multiGetMaxIds
+            ));
+        }
+
+        return summarized(reader.apply(ids),
+                MultiGetService.STATUS_FOUND, MultiGetService.STATUS_NOT_FOUND, MultiGetService.STATUS_FAILED);
+    }
+
+    // Per-item results plus a count per status; every listed status appears, even at zero
+    private static ResponseEntity<Map<String, Object>> summarized(List<Map<String, String>> results, String... statuses) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String status : statuses) {
+            counts.put(status, 0L);
+        }
+        for (Map<String, String> r : results) {
+            counts.merge(r.get(Constants.STATUS), 1L, Long::sum);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("summary", counts);
+        body.put("results", results);
+        return ResponseEntity.ok(body);
+    }
+
+    // ========================= VIEW QUERIES =========================
+    // Served from the off-chain materialized view; each answer carries the ledger height it reflects
+
+    @GetMapping("/queryProductsByCategory/{category}")
+    public ResponseEntity<Map<String, Object>> queryProductsByCategory(@PathVariable String category) {
+        return viewAnswer(Constants.PRODUCTS_KEY, () -> ledgerView.productsByCategory(category));
+    }
+
+    // Products with quantity strictly below the threshold, lowest stock first
+    @GetMapping("/queryLowStockProducts")
+    public ResponseEntity<Map<String, Object>> queryLowStockProducts(@RequestParam int below) {
+        return viewAnswer(Constants.PRODUCTS_KEY, () -> ledgerView.productsByQuantity(null, below));
+    }
+
+    // Products with min <= quantity < max; either bound may be omitted
+    @GetMapping("/queryProductsByQuantity")
+    public ResponseEntity<Map<String, Object>> queryProductsByQuantity(@RequestParam(required = false) Integer min,
+                                                                       @RequestParam(required = false) Integer max) {
+        return viewAnswer(Constants.PRODUCTS_KEY, () -> ledgerView.productsByQuantity(min, max));
+    }
+
+    @GetMapping("/queryShipmentsByStatus/{status}")
+    public ResponseEntity<Map<String, Object>> queryShipmentsByStatus(@PathVariable String status) {
+        return viewAnswer(Constants.SHIPMENTS_KEY, () -> ledgerView.shipmentsByStatus(status));
+    }
+
+    @GetMapping("/queryShipmentsByCarrier/{carrier}")
+    public ResponseEntity<Map<String, Object>> queryShipmentsByCarrier(@PathVariable String carrier) {
+        return viewAnswer(Constants.SHIPMENTS_KEY, () -> ledgerView.shipmentsByCarrier(carrier));
+    }
+
+    private ResponseEntity<Map<String, Object>> viewAnswer(String key, Supplier<LedgerView.Snapshot<?>> query) {
+        if (!ledgerView.isActive()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(Constants.ERROR, Constants.VIEW_UNAVAILABLE));
+        }
+        if (!ledgerView.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(Constants.ERROR, Constants.VIEW_LOADING));
+        }
+        LedgerView.Snapshot<?> snapshot = query.get();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put(Constants.LEDGER_HEIGHT, snapshot.ledgerHeight());
+        body.put(Constants.COUNT, snapshot.items().size());
+        body.put(key, snapshot.items());
+        return ResponseEntity.ok(body);
+    }
+
+    // Size, load state and ledger height of the materialized view
+    @GetMapping("/viewStats")
+    public ResponseEntity<Map<String, Object>> viewStats() {
+        return ResponseEntity.ok(ledgerView.stats());
+    }
+
+    // Server-sent events for committed product/shipment changes; no ids means every change
+    @GetMapping("/changes")
+    public ResponseEntity<SseEmitter> changes(@RequestParam(required = false) List<String> productIds,
+                                              @RequestParam(required = false) List<String> shipmentIds) {
+        if (!changeStreamService.isAvailable()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        try {
+            SseEmitter emitter = changeStreamService.subscribe(
+                    productIds == null ? Set.of() : new LinkedHashSet<>(productIds),
+                    shipmentIds == null ? Set.of() : new LinkedHashSet<>(shipmentIds));
+            return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+        } catch (IllegalStateException e) {
+            logger.warn("Rejected change stream subscription: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").build();
+        }
+    }
+
+    @GetMapping("/changeStreamStats")
+    public ResponseEntity<Map<String, Object>> changeStreamStats() {
+        return ResponseEntity.ok(changeStreamService.stats());
+    }
+
     // ========================= UPDATE =========================
     @PutMapping("/update/{productId}")
     public ResponseEntity<Map<String, String>> updateAsset(
             @PathVariable String productId,
-            @RequestBody Map<String, String> payload) {
-        logger.info("Received request to update product: id={}", productId);
+            @RequestBody Map<String, String> payload,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        logger.info(RequestLogSampler.REQUEST, "Received request to update product: id={}", productId);
         try {
             if (payload == null || payload.get(Constants.QUANTITY) == null || payload.get(Constants.QUANTITY).isBlank()) {
                 logger.warn("Invalid updateProduct request for id={} missing quantity", productId);
@@ -174,18 +412,18 @@ public class SupplyChainController {
 
             String quantity = payload.get(Constants.QUANTITY);
             // Only invoke service when validated
+            if (wantsAsync(prefer)) {
+                return accepted(fabricService.updateProductQuantityAsync(productId, quantity));
+            }
             fabricService.updateProductQuantity(productId, quantity);
             return ResponseEntity.ok(Map.of(
                 Constants.MESSAGE, Constants.PRODUCT_UPDATED
             ));
-        } catch (ProductNotFoundException pnfe) {
-            logger.warn("Request failed to update product: id={} not found", productId);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
-                    Constants.ERROR, String.format(Constants.PRODUCT_NOT_FOUND_FMT, productId)
-            ));
         } catch (FabricServiceException e) {
             logger.warn("Request failed to update product: id={} error={}", productId, e.getMessage());
             return handleServiceException(e, Constants.FAILED_UPDATE_PRODUCT, productId);
+        } catch (LoadShedException e) {
+            return shed(e);
         } catch (Exception e) {
             logger.warn("Request failed to update product: id={} unexpected error={}", productId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(Constants.ERROR, Constants.FAILED_UPDATE_PRODUCT));
@@ -194,8 +432,9 @@ public class SupplyChainController {
 
     // ========================= DELETE =========================
     @DeleteMapping("/removeProduct/{productId}")
-    public ResponseEntity<Map<String, String>> deleteAsset(@PathVariable String productId) {
-        logger.info("Received request to delete product: id={}", productId);
+    public ResponseEntity<Map<String, String>> deleteAsset(@PathVariable String productId,
+                                                           @RequestHeader(value = "Prefer", required = false) String prefer) {
+        logger.info(RequestLogSampler.REQUEST, "Received request to delete product: id={}", productId);
         try {
             if (productId == null || productId.isBlank()) {
                 logger.warn("Invalid deleteProduct request: missing productId");
@@ -204,18 +443,18 @@ public class SupplyChainController {
                 ));
             }
 
+            if (wantsAsync(prefer)) {
+                return accepted(fabricService.deleteProductAsync(productId));
+            }
             fabricService.deleteProduct(productId);
             return ResponseEntity.ok(Map.of(
                 Constants.MESSAGE, Constants.PRODUCT_DELETED
             ));
-        } catch (ProductNotFoundException pnfe) {
-            logger.warn("Request failed to delete product: id={} not found", productId);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
-                    Constants.ERROR, String.format(Constants.PRODUCT_NOT_FOUND_FMT, productId)
-            ));
         } catch (FabricServiceException e) {
             logger.warn("Request failed to delete product: id={} error={}", productId, e.getMessage());
             return handleServiceException(e, Constants.FAILED_DELETE_PRODUCT, productId);
+        } catch (LoadShedException e) {
+            return shed(e);
         } catch (Exception e) {
             logger.warn("Request failed to delete product: id={} unexpected error={}", productId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(Constants.ERROR, Constants.FAILED_DELETE_PRODUCT));
@@ -223,8 +462,9 @@ public class SupplyChainController {
     }
 
     @PostMapping("/createShipment")
-    public ResponseEntity<Map<String, String>> createShipment(@RequestBody Map<String, String> payload) {
-        logger.info("Received request to create shipment: id={}", payload == null ? null : payload.get(Constants.SHIPMENT_ID));
+    public ResponseEntity<Map<String, String>> createShipment(@RequestBody Map<String, String> payload,
+                                                              @RequestHeader(value = "Prefer", required = false) String prefer) {
+        logger.info(RequestLogSampler.REQUEST, "Received request to create shipment: id={}", payload == null ? null : payload.get(Constants.SHIPMENT_ID));
         try {
             if (payload == null
                     || payload.get(Constants.SHIPMENT_ID) == null || payload.get(Constants.SHIPMENT_ID).isBlank()
@@ -247,21 +487,31 @@ public class SupplyChainController {
             String quantity = payload.get(Constants.QUANTITY);
 
             // Only invoke service when validated
+            if (wantsAsync(prefer)) {
+                return accepted(fabricService.createShipmentAsync(shipmentId, productId, origin, destination, carrier, quantity));
+            }
             fabricService.createShipment(shipmentId, productId, origin, destination, carrier, quantity);
             return ResponseEntity.ok(Map.of(
                 Constants.MESSAGE, Constants.SHIPMENT_CREATED
             ));
+        } catch (FabricServiceException e) {
+            logger.warn("Request failed to create shipment: id={} error={}", payload.get(Constants.SHIPMENT_ID), e.getMessage());
+            // Not found is the shipment's product
+            return handleServiceException(e, Constants.FAILED_CREATE_SHIPMENT,
+                    String.format(Constants.PRODUCT_NOT_FOUND_FMT, payload.get(Constants.PRODUCT_ID)),
+                    String.format(Constants.SHIPMENT_ALREADY_EXISTS_FMT, payload.get(Constants.SHIPMENT_ID)));
+        } catch (LoadShedException e) {
+            return shed(e);
         } catch (Exception e) {
-            logger.warn("Request failed to create shipment: id={} error={}", payload == null ? "" : payload.get(Constants.SHIPMENT_ID), e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
-                Constants.ERROR, Constants.FAILED_CREATE_SHIPMENT
-            ));
+            logger.warn("Request failed to create shipment: id={} unexpected error={}", payload == null ? "" : payload.get(Constants.SHIPMENT_ID), e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(Constants.ERROR, Constants.FAILED_CREATE_SHIPMENT));
         }
     }
 
     @GetMapping("/queryShipment/{shipmentId}")
-    public ResponseEntity<Map<String, String>> queryShipment(@PathVariable String shipmentId) {
-        logger.info("Received request to query shipment: id={}", shipmentId);
+    public ResponseEntity<?> queryShipment(@PathVariable String shipmentId,
+                                           @RequestHeader(value = "Accept", required = false) String accept) {
+        logger.info(RequestLogSampler.REQUEST, "Received request to query shipment: id={}", shipmentId);
         try {
             if (shipmentId == null || shipmentId.isBlank()) {
                 logger.warn("Invalid queryShipment request: missing shipmentId");
@@ -271,21 +521,32 @@ public class SupplyChainController {
             }
 
             byte[] result = fabricService.getShipment(shipmentId);
-            String response = new String(result);
+            if (wantsRawJson(accept)) {
+                return rawJson(Constants.SHIPMENT_KEY, result);
+            }
+            String response = new String(result, StandardCharsets.UTF_8);
             return ResponseEntity.ok(Map.of(
                 Constants.SHIPMENT_KEY, response
             ));
-        } catch (Exception e) {
+        } catch (FabricServiceException e) {
             logger.warn("Request failed to query shipment: id={} error={}", shipmentId, e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
-                Constants.ERROR, Constants.SHIPMENT_NOT_FOUND
-            ));
+            return handleServiceException(e, Constants.SHIPMENT_NOT_FOUND, Constants.SHIPMENT_NOT_FOUND,
+                    Constants.SHIPMENT_NOT_FOUND);
+        } catch (LoadShedException e) {
+            return shed(e);
+        } catch (Exception e) {
+            logger.warn("Request failed to query shipment: id={} unexpected error={}", shipmentId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(Constants.ERROR, Constants.SHIPMENT_NOT_FOUND));
         }
     }
 
+    // Without cursor/pageSize the whole log is returned as before; with either one, a page is streamed
     @GetMapping("/queryLogByProductId/{productId}")
-    public ResponseEntity<Map<String, String>> getLogByProductId(@PathVariable String productId) {
-        logger.info("Received request to query Audit Log for Product id= {}", productId);
+    public ResponseEntity<?> getLogByProductId(@PathVariable String productId,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer pageSize,
+                                               @RequestHeader(value = "Accept", required = false) String accept) {
+        logger.info(RequestLogSampler.REQUEST, "Received request to query Audit Log for Product id= {}", productId);
         try {
             if (productId == null || productId.isBlank()) {
                 logger.warn("Invalid queryLogByProductId request: missing productId");
@@ -294,24 +555,57 @@ public class SupplyChainController {
                 ));
             }
 
+            if (cursor != null || pageSize != null) {
+                return streamLogPage(productId, cursor, pageSize);
+            }
+
             byte[] result = fabricService.getAuditLogByProductId(productId);
-            String response = new String(result);
+            if (wantsRawJson(accept)) {
+                return rawJson(Constants.PRODUCT_KEY, result);
+            }
+            String response = new String(result, StandardCharsets.UTF_8);
             return ResponseEntity.ok(Map.of(
                     Constants.PRODUCT_KEY, response
             ));
-        } catch (Exception e) {
+        } catch (ContractException | HttpStatusCodeException e) {
+            // The audit log reads throw the ledger or remote error itself; classify it like the other reads
             logger.warn("Request failed to query audit log id = {} error={}", productId, e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
-                Constants.ERROR, Constants.LOG_NOT_FOUND
+            return handleServiceException(new FabricServiceException(Constants.LOG_NOT_FOUND, e), Constants.LOG_NOT_FOUND,
+                    Constants.LOG_NOT_FOUND, Constants.LOG_NOT_FOUND);
+        } catch (LoadShedException e) {
+            return shed(e);
+        } catch (Exception e) {
+            logger.warn("Request failed to query audit log id = {} unexpected error={}", productId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(Constants.ERROR, Constants.LOG_NOT_FOUND));
+        }
+    }
+
+    private ResponseEntity<?> streamLogPage(String productId, String cursor, Integer pageSize) throws Exception {
+        int offset;
+        try {
+            offset = cursor == null || cursor.isBlank() ? 0 : Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            offset = -1;
+        }
+        if (offset < 0) {
+            logger.warn("Invalid queryLogByProductId request for id={} bad cursor={}", productId, cursor);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    Constants.ERROR, "Invalid cursor: " + cursor
             ));
         }
+        int size = pageSize == null ? auditLogDefaultPageSize : Math.min(Math.max(pageSize, 1), auditLogMaxPageSize);
+
+        AuditLogPage page = fabricService.getAuditLogPage(productId, offset, size);
+        StreamingResponseBody body = page::writeTo;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @PutMapping("/updateShipment/{shipmentId}")
     public ResponseEntity<Map<String, String>> updateShipment(
             @PathVariable String shipmentId,
-            @RequestBody Map<String, String> payload) {
-        logger.info("Received request to update shipment: id={}", shipmentId);
+            @RequestBody Map<String, String> payload,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        logger.info(RequestLogSampler.REQUEST, "Received request to update shipment: id={}", shipmentId);
         try {
             if (shipmentId == null || shipmentId.isBlank()) {
                 logger.warn("Invalid updateShipment request: missing shipmentId");
@@ -329,24 +623,32 @@ public class SupplyChainController {
 
             String status = payload.get(Constants.STATUS);
             // Only invoke service when validated
+            if (wantsAsync(prefer)) {
+                return accepted(fabricService.updateShipmentStatusAsync(shipmentId, status));
+            }
             fabricService.updateShipmentStatus(shipmentId, status);
             return ResponseEntity.ok(Map.of(
                 Constants.MESSAGE, Constants.SHIPMENT_UPDATED
             ));
-        } catch (Exception e) {
+        } catch (FabricServiceException e) {
             logger.warn("Request failed to update shipment: id={} error={}", shipmentId, e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
-                Constants.ERROR, Constants.FAILED_UPDATE_SHIPMENT
-            ));
+            return handleServiceException(e, Constants.FAILED_UPDATE_SHIPMENT, Constants.SHIPMENT_NOT_FOUND,
+                    Constants.FAILED_UPDATE_SHIPMENT);
+        } catch (LoadShedException e) {
+            return shed(e);
+        } catch (Exception e) {
+            logger.warn("Request failed to update shipment: id={} unexpected error={}", shipmentId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(Constants.ERROR, Constants.FAILED_UPDATE_SHIPMENT));
         }
     }
 
     // New endpoint to place an order for a product
     @PostMapping("/placeOrder")
-    public ResponseEntity<Map<String, String>> placeOrder(@RequestBody Map<String, Object> payload) {
+    public ResponseEntity<Map<String, String>> placeOrder(@RequestBody Map<String, Object> payload,
+                                                          @RequestHeader(value = "Prefer", required = false) String prefer) {
         Object prodObj = payload == null ? null : payload.get(Constants.PRODUCT_ID);
         Object qtyObj = payload == null ? null : payload.get(Constants.QUANTITY);
-        logger.info("Received request to place order: productId={}, quantity={}", prodObj, qtyObj);
+        logger.info(RequestLogSampler.REQUEST, "Received request to place order: productId={}, quantity={}", prodObj, qtyObj);
 
         if (prodObj == null || qtyObj == null) {
             logger.warn("Invalid placeOrder request payload: {}", payload);
@@ -359,25 +661,106 @@ public class SupplyChainController {
         String quantity = qtyObj.toString();
 
         try {
+            if (wantsAsync(prefer)) {
+                return accepted(fabricService.placeOrderAsync(productId, quantity));
+            }
             byte[] result = fabricService.placeOrder(productId, quantity);
-            String response = new String(result);
+            String response = new String(result, StandardCharsets.UTF_8);
             return ResponseEntity.ok(Map.of(
                     Constants.MESSAGE, response
             ));
-        } catch (ProductNotFoundException pnfe) {
-            String prodId = productId == null ? "" : productId;
-            logger.warn("Request failed to place order: productId={} not found", prodId);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
-                    Constants.ERROR, String.format(Constants.PRODUCT_NOT_FOUND_FMT, prodId)
-            ));
         } catch (FabricServiceException e) {
             String prodId = productId == null ? "" : productId;
             logger.warn("Request failed to place order: productId={} error={}", prodId, e.getMessage());
             return handleServiceException(e, Constants.FAILED_PLACE_ORDER, prodId);
+        } catch (LoadShedException e) {
+            return shed(e);
         } catch (Exception e) {
             String prodId = productId == null ? "" : productId;
             logger.warn("Request failed to place order: productId={} unexpected error={}", prodId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(Constants.ERROR, Constants.FAILED_PLACE_ORDER));
         }
     }
+
+    // Commit status of a transaction submitted with "Prefer: respond-async"
+    @GetMapping("/tx/{txId}")
+    public ResponseEntity<Object> getTransactionStatus(@PathVariable String txId) {
+        TransactionTracker.Status status = fabricService.getTransactionStatus(txId);
+        if (status == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    Constants.ERROR, "Unknown or expired transaction id: " + txId
+            ));
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    // Hit/miss/eviction counters for the product and shipment read cache, plus coalesced reads
+    @GetMapping("/cacheStats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        Map<String, Object> body = new LinkedHashMap<>(readCache.stats());
+        body.put("coalesced", fabricService.coalescingStats());
+        return ResponseEntity.ok(body);
+    }
+
+    // Gateway pool size and per-member load/health (local mode)
+    @GetMapping("/gatewayPoolStats")
+    public ResponseEntity<Map<String, Object>> gatewayPoolStats() {
+        return ResponseEntity.ok(fabricService.gatewayPoolStats());
+    }
+
+    // Latency, load and ejection state of the query peers (local mode with peer selection on)
+    @GetMapping("/peerStats")
+    public ResponseEntity<Map<String, Object>> peerStats() {
+        PeerQueryHandlerFactory factory = peerSelection.getIfAvailable();
+        if (factory == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(Constants.ERROR, "Peer selection is not active"));
+        }
+        return ResponseEntity.ok(factory.stats());
+    }
+
+    // Adaptive concurrency limits for ledger reads and writes: current limit, in flight, rejected
+    @GetMapping("/limitStats")
+    public ResponseEntity<Map<String, Object>> limitStats() {
+        return ResponseEntity.ok(fabricService.limitStats());
+    }
+
+    // Same-key write ordering and MVCC conflict retries of local submits
+    @GetMapping("/writeStats")
+    public ResponseEntity<Map<String, Object>> writeStats() {
+        return ResponseEntity.ok(fabricService.writeStats());
+    }
+
+    // Leased/pending/available connections of the remote-mode HTTP pool, in total and per route
+    @GetMapping("/remotePoolStats")
+    public ResponseEntity<Map<String, Object>> remotePoolStats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("total", describePool(remoteConnectionManager.getTotalStats()));
+        Map<String, Object> routes = new LinkedHashMap<>();
+        for (HttpRoute route : remoteConnectionManager.getRoutes()) {
+            routes.put(route.getTargetHost().toURI(), describePool(remoteConnectionManager.getStats(route)));
+        }
+        body.put("routes", routes);
+        return ResponseEntity.ok(body);
+    }
+
+    // Circuit breaker state per remote instance/endpoint and hedged-read counters
+    @GetMapping("/remoteCircuitStats")
+    public ResponseEntity<Map<String, Object>> remoteCircuitStats() {
+        return ResponseEntity.ok(remoteResilience.stats());
+    }
+
+    // Discovered remote instances with their outstanding requests, latency EWMA and ejection state
+    @GetMapping("/remoteInstanceStats")
+    public ResponseEntity<Map<String, Object>> remoteInstanceStats() {
+        return ResponseEntity.ok(remoteBalancer.stats());
+    }
+
+    private static Map<String, Integer> describePool(PoolStats stats) {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        out.put("leased", stats.getLeased());
+        out.put("pending", stats.getPending());
+        out.put("available", stats.getAvailable());
+        out.put("max", stats.getMax());
+        return out;
+    }
 }
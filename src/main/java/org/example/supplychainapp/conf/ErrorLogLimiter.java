@@ -0,0 +1,174 @@
+package org.example.supplychainapp.conf;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Logback turbo filter that keeps a failing dependency from flooding the log. WARN and ERROR events
+ * with the same signature (logger, message format and, for exceptions, root cause type and origin)
+ * are written maxPerWindow times per window; the rest are dropped before the event (and its stack
+ * trace) is built and counted. A background task logs one summary line per signature with the
+ * number of dropped events once its window is over.
+ */
+public class ErrorLogLimiter extends TurboFilter {
+
+    private static final Marker SUMMARY = MarkerFactory.getMarker("SUPPRESSED_SUMMARY");
+
+    private long windowMillis = 10_000;
+    private int maxPerWindow = 5;
+    private int maxSignatures = 1_000;
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    public void setWindowMillis(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public void setMaxPerWindow(int maxPerWindow) {
+        this.maxPerWindow = maxPerWindow;
+    }
+
+    public void setMaxSignatures(int maxSignatures) {
+        this.maxSignatures = maxSignatures;
+    }
+
+    private static final class Window {
+        final String loggerName;
+        final Level level;
+        final String format;
+        final ReentrantLock lock = new ReentrantLock();
+        long start;
+        int written;
+        long suppressed;
+
+        Window(String loggerName, Level level, String format, long start) {
+            this.loggerName = loggerName;
+            this.level = level;
+            this.format = format;
+            this.start = start;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (windowMillis <= 0 || maxPerWindow <= 0) {
+            addInfo("Error log limiting disabled");
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "log-limiter");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(100, Math.min(1_000, windowMillis / 2));
+        flusher.scheduleWithFixedDelay(this::flush, period, period, TimeUnit.MILLISECONDS);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flusher = null;
+        }
+        windows.clear();
+        super.stop();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || format == null || level == null || !level.isGreaterOrEqual(Level.WARN) || marker == SUMMARY) {
+            return FilterReply.NEUTRAL;
+        }
+        // SLF4J also accepts the exception as the last argument
+        if (t == null && params != null && params.length > 0 && params[params.length - 1] instanceof Throwable last) {
+            t = last;
+        }
+        String signature = signature(logger.getName(), format, t);
+        long now = System.currentTimeMillis();
+        Window window = windows.get(signature);
+        if (window == null) {
+            if (windows.size() >= maxSignatures) {
+                return FilterReply.NEUTRAL;
+            }
+            window = windows.computeIfAbsent(signature, k -> new Window(logger.getName(), level, format, now));
+        }
+        window.lock.lock();
+        try {
+            // A window with drops is rolled over by flush(), after its summary is written
+            if (window.suppressed == 0 && now - window.start >= windowMillis) {
+                window.start = now;
+                window.written = 0;
+            }
+            if (window.written < maxPerWindow) {
+                window.written++;
+                return FilterReply.NEUTRAL;
+            }
+            window.suppressed++;
+            return FilterReply.DENY;
+        } finally {
+            window.lock.unlock();
+        }
+    }
+
+    private static String signature(String loggerName, String format, Throwable t) {
+        if (t == null) {
+            return loggerName + '|' + format;
+        }
+        Throwable root = t;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        StackTraceElement[] frames = root.getStackTrace();
+        return loggerName + '|' + format + '|' + root.getClass().getName() + '@' + (frames.length > 0 ? frames[0] : "");
+    }
+
+    private void flush() {
+        long now = System.currentTimeMillis();
+        LoggerContext context = (LoggerContext) getContext();
+        for (Iterator<Map.Entry<String, Window>> it = windows.entrySet().iterator(); it.hasNext(); ) {
+            Window window = it.next().getValue();
+            long suppressed;
+            long elapsed;
+            window.lock.lock();
+            try {
+                elapsed = now - window.start;
+                if (elapsed < windowMillis) {
+                    continue;
+                }
+                suppressed = window.suppressed;
+                if (suppressed == 0) {
+                    // Quiet for a whole window: forget the signature
+                    it.remove();
+                    continue;
+                }
+                window.start = now;
+                window.written = 0;
+                window.suppressed = 0;
+            } finally {
+                window.lock.unlock();
+            }
+            Logger target = context.getLogger(window.loggerName);
+            if (window.level == Level.ERROR) {
+                target.error(SUMMARY, "Suppressed {} similar events in the last {} ms: {}", suppressed, elapsed, window.format);
+            } else {
+                target.warn(SUMMARY, "Suppressed {} similar events in the last {} ms: {}", suppressed, elapsed, window.format);
+            }
+        }
+    }
+}
@@ -1,51 +1,188 @@
 package org.example.supplychainapp.conf;
 
-import org.hyperledger.fabric.gateway.Contract;
+import org.example.supplychainapp.service.GatewayPool;
+import org.example.supplychainapp.service.LedgerConnection;
+import org.example.supplychainapp.service.PeerQueryHandlerFactory;
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.Network;
 import org.hyperledger.fabric.gateway.Wallet;
 import org.hyperledger.fabric.gateway.Wallets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.Resource;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Configuration
+@Profile("!simulated")
 @ConditionalOnProperty(prefix = "supplychain.remote", name = "enabled", havingValue = "false", matchIfMissing = true)
 public class FabricConfig {
+    private static final Logger logger = LoggerFactory.getLogger(FabricConfig.class);
 
     @Value("classpath:networkConfig.yaml")
     private Resource networkConfig;
 
+    @Value("${fabric.wallet.path:wallet}")
+    private String walletPath;
+
+    @Value("${fabric.user:User1}")
+    private String user;
+
+    @Value("${fabric.channel.name:supplychainchannel}")
+    private String channelName;
+
+    @Value("${fabric.contract.name:SupplyChainContract}")
+    private String contractName;
+
+    // Wallet identities to pool; blank means only fabric.user
+    @Value("${fabric.pool.identities:}")
+    private String poolIdentities;
+
+    @Value("${fabric.pool.connections-per-identity:1}")
+    private int connectionsPerIdentity;
+
+    @Value("${fabric.pool.max-in-flight-per-member:0}")
+    private int maxInFlightPerMember;
+
+    @Value("${fabric.pool.eject-after-failures:3}")
+    private int ejectAfterFailures;
+
+    @Value("${fabric.pool.eject-millis:10000}")
+    private long ejectMillis;
+
+    @Value("${fabric.connect.retry-min-ms:500}")
+    private long retryMinMillis;
+
+    @Value("${fabric.connect.retry-max-ms:30000}")
+    private long retryMaxMillis;
+
+    @Value("${fabric.discovery.enabled:false}")
+    private boolean discoveryEnabled;
+
+    // Map discovered peer/orderer addresses to localhost (Fabric test network in Docker)
+    @Value("${fabric.discovery.as-localhost:true}")
+    private boolean discoveryAsLocalhost;
+
+    @Value("${fabric.discovery.refresh-seconds:120}")
+    private int discoveryRefreshSeconds;
+
+    // latency: spread evaluates with PeerQueryHandlerFactory; default: the gateway's own handler
+    @Value("${fabric.query.peer-selection:default}")
+    private String peerSelection;
+
+    @Value("${fabric.query.scope:channel}")
+    private String queryScope;
+
+    @Value("${fabric.query.refresh-millis:30000}")
+    private long queryPeersRefreshMillis;
+
+    @Value("${fabric.query.eject-after-failures:3}")
+    private int queryEjectAfterFailures;
+
+    @Value("${fabric.query.eject-millis:10000}")
+    private long queryEjectMillis;
+
+    // Shared by every gateway so peer latency and health are learned once
     @Bean
-    public Gateway gateway() throws FabricConfigurationException {
+    public PeerQueryHandlerFactory peerQueryHandlerFactory() {
+        return new PeerQueryHandlerFactory(new PeerQueryHandlerFactory.Settings(queryScope, queryPeersRefreshMillis,
+                queryEjectAfterFailures, queryEjectMillis));
+    }
+
+    // Package-private so tests can stand in for the wallet and network config
+    Gateway connect(String identity) throws FabricConfigurationException {
         try {
-            Wallet wallet = Wallets.newFileSystemWallet(Paths.get("wallet"));
+            Wallet wallet = Wallets.newFileSystemWallet(Paths.get(walletPath));
+            if (discoveryEnabled) {
+                // Read by the SDK when it first loads its configuration, i.e. before the first connect
+                System.setProperty("org.hyperledger.fabric.sdk.service_discovery.as_localhost",
+                        Boolean.toString(discoveryAsLocalhost));
+                System.setProperty("org.hyperledger.fabric.sdk.service_discovery.frequency_sec",
+                        Integer.toString(discoveryRefreshSeconds));
+            }
 
             Gateway.Builder builder = Gateway.createBuilder()
-                    .identity(wallet, "User1")
+                    .identity(wallet, identity)
                     .networkConfig(networkConfig.getFile().toPath())
-                    .discovery(false);
+                    .discovery(discoveryEnabled);
+            if ("latency".equalsIgnoreCase(peerSelection)) {
+                builder.queryHandler(peerQueryHandlerFactory());
+            }
 
             return builder.connect();
         } catch (IOException ioe) {
             throw new FabricConfigurationException("Failed to load network configuration or wallet files", ioe);
         } catch (RuntimeException re) {
-            throw new FabricConfigurationException("Failed to initialize Fabric Gateway", re);
+            throw new FabricConfigurationException("Failed to initialize Fabric Gateway for identity " + identity, re);
         }
     }
 
+    // Empty until LedgerConnection has connected every member
     @Bean
-    public Network network(Gateway gateway) {
-        return gateway.getNetwork("supplychainchannel");
+    public GatewayPool gatewayPool() {
+        return new GatewayPool(new GatewayPool.Settings(maxInFlightPerMember, ejectAfterFailures, ejectMillis));
     }
 
+    // Gateways are connected in the background after startup, not while the context is built
     @Bean
-    public Contract contract(Network network) {
-        return network.getContract("SupplyChainContract");
+    public LedgerConnection ledgerConnection(GatewayPool gatewayPool) {
+        return new LedgerConnection(() -> connectPool(gatewayPool), retryMinMillis, retryMaxMillis);
+    }
+
+    // fabric.user is the first member; every other identity/connection gets its own gateway
+    LedgerConnection.Connected connectPool(GatewayPool gatewayPool) throws Exception {
+        List<String> identities = poolIdentities == null || poolIdentities.isBlank()
+                ? List.of(user)
+                : Arrays.stream(poolIdentities.split(",")).map(String::trim).filter(s -> !s.isEmpty()).distinct().toList();
+        int perIdentity = Math.max(1, connectionsPerIdentity);
+        List<GatewayPool.Member> members = new ArrayList<>();
+        List<Gateway> opened = new ArrayList<>();
+        Network primary = null;
+        try {
+            Gateway first = connect(user);
+            opened.add(first);
+            primary = first.getNetwork(channelName);
+            members.add(new GatewayPool.Member(user + "#1", primary.getContract(contractName), first));
+            warmUp(primary);
+            for (String identity : identities) {
+                for (int i = 1; i <= perIdentity; i++) {
+                    if (identity.equals(user) && i == 1) {
+                        continue;
+                    }
+                    Gateway gateway = connect(identity);
+                    opened.add(gateway);
+                    Network network = gateway.getNetwork(channelName);
+                    members.add(new GatewayPool.Member(identity + "#" + i, network.getContract(contractName), gateway));
+                    warmUp(network);
+                }
+            }
+        } catch (Exception e) {
+            // Rethrow the connect failure itself, so the retry log and readiness show the real cause
+            for (Gateway gateway : opened) {
+                try {
+                    gateway.close();
+                } catch (RuntimeException closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            throw e;
+        }
+        gatewayPool.attach(members);
+        logger.info("Gateway pool: {} members over identities {}", members.size(), identities);
+        return new LedgerConnection.Connected(primary, members.get(0).contract());
+    }
+
+    // Opens the peer connections (TLS handshake, gRPC channel) before the first real request needs them
+    private static void warmUp(Network network) throws Exception {
+        network.getChannel().queryBlockchainInfo();
     }
 }
@@ -1,9 +1,10 @@
 package org.example.supplychainapp.conf;
 
 import org.example.supplychainapp.Constants;
+import org.example.supplychainapp.service.ErrorCode;
 import org.example.supplychainapp.service.FabricServiceException;
-import org.example.supplychainapp.service.ProductNotFoundException;
-import org.example.supplychainapp.service.ProductAlreadyExistsException;
+import org.example.supplychainapp.service.LoadShedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -25,28 +26,24 @@ public class GlobalExceptionHandler {
         ));
     }
 
-    @ExceptionHandler(ProductNotFoundException.class)
-    public ResponseEntity<Map<String, String>> handleProductNotFound(ProductNotFoundException ex) {
-        logger.warn("Product not found: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(Constants.ERROR, ex.getMessage()));
-    }
-
-    @ExceptionHandler(ProductAlreadyExistsException.class)
-    public ResponseEntity<Map<String, String>> handleProductAlreadyExists(ProductAlreadyExistsException ex) {
-        logger.warn("Product already exists: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(Constants.ERROR, ex.getMessage()));
+    @ExceptionHandler(LoadShedException.class)
+    public ResponseEntity<Map<String, String>> handleLoadShed(LoadShedException ex) {
+        return ResponseEntity.status(ErrorCode.OVERLOADED.status())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(Map.of(
+                        Constants.ERROR, ex.getMessage(),
+                        Constants.CODE, ErrorCode.OVERLOADED.name()
+                ));
     }
 
+    // Covers ProductNotFoundException and ProductAlreadyExistsException too; the status comes from the code
     @ExceptionHandler(FabricServiceException.class)
     public ResponseEntity<Map<String, String>> handleFabricService(FabricServiceException ex) {
-        logger.warn("Unhandled FabricServiceException: {}", ex.getMessage());
-        String msg = ex.getMessage() == null ? "" : ex.getMessage().toLowerCase();
-        if (msg.contains("not found")) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(Constants.ERROR, ex.getMessage()));
-        }
-        if (msg.contains("already exists")) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(Constants.ERROR, ex.getMessage()));
-        }
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(Constants.ERROR, ex.getMessage()));
+        logger.warn("Unhandled FabricServiceException: code={} {}", ex.getCode(), ex.getMessage());
+        String message = ex.getMessage() == null ? "" : ex.getMessage();
+        return ResponseEntity.status(ex.getCode().status()).body(Map.of(
+                Constants.ERROR, message,
+                Constants.CODE, ex.getCode().name()
+        ));
     }
 }
@@ -1,32 +1,72 @@
-/*
 package org.example.supplychainapp.conf;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
-@Component
+/**
+ * Authenticates requests carrying an HMAC-signed bearer token. The "role" (string) or "roles"
+ * (list) claim becomes ROLE_ADMIN / ROLE_USER authorities for the rules in SecurityConfig.
+ * <p>
+ * The key and parser are built once. Verified tokens are cached (bounded, by the full token
+ * string, so the signature is part of the key) until their exp plus the clock skew or the cache
+ * TTL, whichever is first, so a cached token expires exactly when the parser would reject it; a
+ * repeated token costs one cache lookup instead of a signature check. Requests with a missing or
+ * invalid token continue unauthenticated and are judged by the authorization rules.
+ */
 public class JwtAuthFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    // expiresAtMillis already includes the allowed clock skew
+    private record Verified(String subject, List<GrantedAuthority> authorities, long expiresAtMillis) {
+    }
+
+    private final String header;
+    private final String prefix;
+    private final JwtParser parser;
+    private final long clockSkewMillis;
+    private final Cache<String, Verified> verified;
+
+    public JwtAuthFilter(String secret, String header, String prefix, long clockSkewSeconds,
+                         long cacheMaxSize, long cacheTtlSeconds) {
+        this.header = header;
+        this.prefix = prefix;
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .clockSkewSeconds(clockSkewSeconds)
+                .build();
+        this.clockSkewMillis = TimeUnit.SECONDS.toMillis(Math.max(0, clockSkewSeconds));
+        this.verified = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(0, cacheMaxSize))
+                .expireAfterWrite(Math.max(1, cacheTtlSeconds), TimeUnit.SECONDS)
+                .build();
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -34,38 +74,59 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        final String header = request.getHeader("Authorization");
-
-        if (header == null || !header.startsWith("Bearer ")) {
-            filterChain.doFilter(request, response);
-            return;
+        String value = request.getHeader(header);
+        if (value != null && value.startsWith(prefix) && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Verified token = verify(value.substring(prefix.length()).trim());
+            if (token != null) {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(token.subject(), null, token.authorities()));
+            }
         }
+        filterChain.doFilter(request, response);
+    }
 
-        final String token = header.substring(7);
+    private Verified verify(String token) {
+        long now = System.currentTimeMillis();
+        Verified cached = verified.getIfPresent(token);
+        if (cached != null) {
+            if (now < cached.expiresAtMillis()) {
+                return cached;
+            }
+            verified.invalidate(token);
+            return null;
+        }
         try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            String username = claims.getSubject();
-            String role = claims.get("role", String.class);
-            SimpleGrantedAuthority authority = new SimpleGrantedAuthority(role);
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(username, null, List.of(authority));
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getSubject() == null) {
+                return null;
             }
-
-        } catch (Exception e) {
-            System.out.println("Invalid JWT: " + e.getMessage());
+            Date exp = claims.getExpiration();
+            long expiresAt = exp == null ? Long.MAX_VALUE : exp.getTime();
+            Verified result = new Verified(claims.getSubject(), authorities(claims),
+                    expiresAt > Long.MAX_VALUE - clockSkewMillis ? Long.MAX_VALUE : expiresAt + clockSkewMillis);
+            verified.put(token, result);
+            return result;
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected JWT: {}", e.getMessage());
+            return null;
         }
+    }
 
-        filterChain.doFilter(request, response);
+    private static List<GrantedAuthority> authorities(Claims claims) {
+        List<String> roles = new ArrayList<>();
+        if (claims.get("role") instanceof String role) {
+            roles.add(role);
+        }
+        if (claims.get("roles") instanceof Collection<?> list) {
+            list.forEach(r -> roles.add(String.valueOf(r)));
+        }
+        List<GrantedAuthority> out = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            String name = role.trim().toUpperCase(Locale.ROOT);
+            if (!name.isEmpty()) {
+                out.add(new SimpleGrantedAuthority(name.startsWith(ROLE_PREFIX) ? name : ROLE_PREFIX + name));
+            }
+        }
+        return List.copyOf(out);
     }
 }
-*/
@@ -0,0 +1,49 @@
+package org.example.supplychainapp.conf;
+
+import org.example.supplychainapp.service.GatewayPool;
+import org.example.supplychainapp.service.LedgerConnection;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * "ledger" health contributor, part of the readiness group: OUT_OF_SERVICE until the background
+ * ledger connection is established and warmed up, and afterwards whenever every gateway pool
+ * member is ejected for connection failures. Members come back once their ejection expires or a
+ * call through them succeeds, and readiness with them. Always UP where there is no local connection
+ * (simulated and remote modes).
+ */
+@Component
+public class LedgerHealthIndicator implements HealthIndicator {
+
+    private final ObjectProvider<LedgerConnection> connectionProvider;
+    private final ObjectProvider<GatewayPool> poolProvider;
+
+    public LedgerHealthIndicator(ObjectProvider<LedgerConnection> connectionProvider,
+                                 ObjectProvider<GatewayPool> poolProvider) {
+        this.connectionProvider = connectionProvider;
+        this.poolProvider = poolProvider;
+    }
+
+    @Override
+    public Health health() {
+        LedgerConnection connection = connectionProvider.getIfAvailable();
+        if (connection == null) {
+            return Health.up().withDetail("connection", "none (simulated or remote mode)").build();
+        }
+        if (!connection.isConnected()) {
+            return Health.outOfService().withDetails(connection.stats()).build();
+        }
+        GatewayPool pool = poolProvider.getIfAvailable();
+        if (pool == null || !pool.isReady()) {
+            return Health.up().withDetails(connection.stats()).build();
+        }
+        int healthy = pool.healthyCount();
+        Health.Builder builder = healthy > 0 ? Health.up() : Health.outOfService();
+        return builder.withDetails(connection.stats())
+                .withDetail("poolSize", pool.size())
+                .withDetail("poolHealthy", healthy)
+                .build();
+    }
+}
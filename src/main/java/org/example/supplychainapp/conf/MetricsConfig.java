@@ -0,0 +1,29 @@
+package org.example.supplychainapp.conf;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.example.supplychainapp.service.LedgerReadCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes the read cache and remote HTTP pool through Micrometer next to the fabric.transaction timers.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder ledgerReadCacheMetrics(LedgerReadCache readCache) {
+        return registry -> {
+            GuavaCacheMetrics.monitor(registry, readCache.productCache(), "ledger.cache.product");
+            GuavaCacheMetrics.monitor(registry, readCache.shipmentCache(), "ledger.cache.shipment");
+        };
+    }
+
+    @Bean
+    public MeterBinder remoteConnectionPoolMetrics(PoolingHttpClientConnectionManager remoteConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(remoteConnectionManager, "supplychain-remote");
+    }
+}
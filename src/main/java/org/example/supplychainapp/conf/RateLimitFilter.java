@@ -0,0 +1,173 @@
+package org.example.supplychainapp.conf;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.supplychainapp.Constants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Per-caller token buckets, one per endpoint group: "write" is the admin and user write paths of
+ * SecurityConfig, "read" its user read paths, "other" everything else except actuator. The caller is the
+ * authenticated principal, or the client IP without one. Over budget the request gets 429 with
+ * Retry-After before it reaches the controller.
+ * <p>
+ * Each bucket is a single AtomicLong in the GCRA form of a token bucket: the time at which the
+ * bucket will be full again, updated with CAS. A full bucket is the same as no bucket, so a
+ * background sweep drops every bucket that has refilled; that is the idle eviction. New callers
+ * beyond maxCallers share one overflow bucket per group until the sweep frees room.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String CODE_RATE_LIMITED = "RATE_LIMITED";
+
+    /** Sustained requests per second and the burst allowed on top for one caller. */
+    public record Budget(double perSecond, int burst) {
+    }
+
+    private static final class Group {
+        final String name;
+        final String[] patterns;
+        // Time between two requests at the sustained rate, and how far ahead of now the bucket may run
+        final long intervalNanos;
+        final long toleranceNanos;
+        final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE);
+
+        Group(String name, String[] patterns, Budget budget) {
+            this.name = name;
+            this.patterns = patterns;
+            this.intervalNanos = (long) (1_000_000_000L / Math.max(0.001, budget.perSecond()));
+            this.toleranceNanos = intervalNanos * Math.max(0, budget.burst() - 1);
+        }
+    }
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final Group write;
+    private final Group read;
+    private final Group other;
+    private final Set<String> exemptAddresses;
+    private final int maxCallers;
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+
+    public RateLimitFilter(Budget write, Budget read, Budget other, int maxCallers, long sweepSeconds,
+                           Set<String> exemptAddresses) {
+        this.write = new Group("write", Stream.concat(Arrays.stream(SecurityConfig.ADMIN_WRITE_PATHS),
+                Arrays.stream(SecurityConfig.USER_WRITE_PATHS)).toArray(String[]::new), write);
+        this.read = new Group("read", SecurityConfig.USER_READ_PATHS, read);
+        this.other = new Group("other", new String[0], other);
+        this.maxCallers = maxCallers;
+        this.exemptAddresses = exemptAddresses;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rate-limit-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1, sweepSeconds);
+        sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.SECONDS);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/actuator/") || exemptAddresses.contains(request.getRemoteAddr())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Group group = groupOf(path);
+        long waitNanos = tryAcquire(group, callerOf(request), System.nanoTime());
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"" + Constants.ERROR + "\":\"Rate limit exceeded for " + group.name
+                    + " requests\",\"" + Constants.CODE + "\":\"" + CODE_RATE_LIMITED + "\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Group groupOf(String path) {
+        for (String pattern : write.patterns) {
+            if (matcher.match(pattern, path)) {
+                return write;
+            }
+        }
+        for (String pattern : read.patterns) {
+            if (matcher.match(pattern, path)) {
+                return read;
+            }
+        }
+        return other;
+    }
+
+    private static String callerOf(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "user:" + auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    // 0 when the request may pass, else how long until it would
+    private long tryAcquire(Group group, String caller, long now) {
+        String key = group.name + '|' + caller;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() < maxCallers
+                    ? buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE))
+                    : group.overflow;
+        }
+        while (true) {
+            long full = bucket.get();
+            long start = full == Long.MIN_VALUE || full - now < 0 ? now : full;
+            long wait = start - now - group.toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, start + group.intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // Buckets that have refilled hold no state worth keeping
+    void sweep() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(b -> b.get() - now <= 0);
+    }
+
+    // Callers with a bucket of their own, i.e. seen within roughly one refill time
+    int trackedCallers() {
+        return buckets.size();
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.supplychainapp.conf;
+
+import org.example.supplychainapp.service.GatewayPool;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Ledger wiring for remote mode, the counterpart of {@link FabricConfig} and
+ * {@link SimulatedLedgerConfig}. There is no ledger connection: FabricService sends every call over
+ * HTTP through the RestTemplate from {@link RestTemplateConfig}, so the pool has no members.
+ */
+@Configuration
+@Profile("!simulated")
+@ConditionalOnProperty(prefix = "supplychain.remote", name = "enabled", havingValue = "true")
+public class RemoteLedgerConfig {
+
+    @Bean
+    public GatewayPool gatewayPool() {
+        return new GatewayPool(new GatewayPool.Settings(0, 0, 0));
+    }
+}
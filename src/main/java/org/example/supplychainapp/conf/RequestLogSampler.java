@@ -0,0 +1,36 @@
+package org.example.supplychainapp.conf;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback turbo filter that writes only a sample of the per-request log lines, i.e. the ones
+ * logged with the {@link #REQUEST} marker. Runs before the event is built, so a dropped line
+ * costs one random number. Configured in logback-spring.xml from supplychain.logging.request-sample-rate.
+ */
+public class RequestLogSampler extends TurboFilter {
+
+    public static final Marker REQUEST = MarkerFactory.getMarker("REQUEST");
+
+    // 1 writes every line, 0 none
+    private volatile double rate = 1.0;
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks, which must not be sampled
+        if (marker != REQUEST || format == null || rate >= 1.0) {
+            return FilterReply.NEUTRAL;
+        }
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -1,16 +1,193 @@
 // New file: provide RestTemplate bean used by FabricService
 package org.example.supplychainapp.conf;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.example.supplychainapp.remote.RemoteInstanceBalancer;
+import org.example.supplychainapp.remote.RemoteResilienceInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * RestTemplate for the remote supply-chain mode, backed by a pooled keep-alive Apache HttpClient
+ * so calls reuse connections and never wait forever on a slow peer service. Calls go through a
+ * per-endpoint circuit breaker and, for idempotent reads, optional hedging to a second instance.
+ * When no fixed remote URL is set and Eureka is enabled, calls to http://{serviceId}/... are spread
+ * over the registered instances by {@link RemoteInstanceBalancer}.
+ */
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${supplychain.remote.pool.max-total:200}")
+    private int maxTotal;
+
+    @Value("${supplychain.remote.pool.max-per-route:50}")
+    private int maxPerRoute;
+
+    @Value("${supplychain.remote.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${supplychain.remote.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    // How long a caller may wait for a pooled connection before failing
+    @Value("${supplychain.remote.pool.acquire-timeout-ms:1000}")
+    private long acquireTimeoutMs;
+
+    @Value("${supplychain.remote.keep-alive-seconds:30}")
+    private long keepAliveSeconds;
+
+    @Value("${supplychain.remote.pool.idle-evict-seconds:60}")
+    private long idleEvictSeconds;
+
+    @Value("${supplychain.remote.pool.connection-ttl-seconds:300}")
+    private long connectionTtlSeconds;
+
+    // A pooled connection idle longer than this is checked for a peer close before it is reused
+    @Value("${supplychain.remote.pool.validate-after-inactivity-ms:2000}")
+    private long validateAfterInactivityMs;
+
+    @Value("${supplychain.remote.url:}")
+    private String remoteUrl;
+
+    @Value("${supplychain.remote.use-eureka:false}")
+    private boolean useEureka;
+
+    @Value("${supplychain.remote.serviceId:supplychain-service}")
+    private String serviceId;
+
+    // peak-ewma or least-outstanding
+    @Value("${supplychain.remote.lb.strategy:peak-ewma}")
+    private String lbStrategy;
+
+    @Value("${supplychain.remote.lb.refresh-ms:5000}")
+    private long lbRefreshMs;
+
+    @Value("${supplychain.remote.lb.eject-after-failures:3}")
+    private int lbEjectAfterFailures;
+
+    @Value("${supplychain.remote.lb.eject-ms:10000}")
+    private long lbEjectMs;
+
+    @Value("${supplychain.remote.circuit.failure-threshold:5}")
+    private int circuitFailureThreshold;
+
+    @Value("${supplychain.remote.circuit.open-ms:5000}")
+    private long circuitOpenMs;
+
+    @Value("${supplychain.remote.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${supplychain.remote.hedge.url:}")
+    private String hedgeUrl;
+
+    @Value("${supplychain.remote.hedge.endpoints:queryProduct,queryShipment,queryLogByProductId}")
+    private Set<String> hedgeEndpoints;
+
+    @Value("${supplychain.remote.hedge.delay-percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${supplychain.remote.hedge.min-delay-ms:10}")
+    private long hedgeMinDelayMs;
+
+    // Hedge delay used until enough latencies have been observed for an endpoint
+    @Value("${supplychain.remote.hedge.initial-delay-ms:100}")
+    private long hedgeInitialDelayMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager remoteConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(remoteConnectionConfig())
+                .build();
+    }
+
+    // Package-private so tests can check it; the pool does not expose its default connection config
+    ConnectionConfig remoteConnectionConfig() {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setTimeToLive(TimeValue.ofSeconds(connectionTtlSeconds))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient remoteHttpClient(PoolingHttpClientConnectionManager remoteConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(remoteConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // used when the server does not send a Keep-Alive header
+                        .setConnectionKeepAlive(TimeValue.ofSeconds(keepAliveSeconds))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public HttpComponentsClientHttpRequestFactory remoteRequestFactory(CloseableHttpClient remoteHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(remoteHttpClient);
     }
-}
 
+    private boolean balancing() {
+        return useEureka && (remoteUrl == null || remoteUrl.isBlank());
+    }
+
+    @Bean
+    public RemoteInstanceBalancer remoteInstanceBalancer(ObjectProvider<DiscoveryClient> discoveryClient) {
+        return new RemoteInstanceBalancer(discoveryClient, new RemoteInstanceBalancer.Settings(
+                serviceId, lbStrategy, lbRefreshMs, lbEjectAfterFailures, lbEjectMs));
+    }
+
+    @Bean
+    public RemoteResilienceInterceptor remoteResilienceInterceptor(HttpComponentsClientHttpRequestFactory remoteRequestFactory,
+                                                                   RemoteInstanceBalancer remoteInstanceBalancer,
+                                                                   MeterRegistry registry) {
+        RemoteResilienceInterceptor.Settings settings = new RemoteResilienceInterceptor.Settings(
+                circuitFailureThreshold, circuitOpenMs, hedgeEndpoints,
+                hedgePercentile, hedgeMinDelayMs, hedgeInitialDelayMs);
+        UnaryOperator<URI> hedgeTarget = null;
+        if (hedgeEnabled && hedgeUrl != null && !hedgeUrl.isBlank()) {
+            hedgeTarget = RemoteResilienceInterceptor.fixedHedgeTarget(hedgeUrl);
+        } else if (hedgeEnabled && balancing()) {
+            hedgeTarget = remoteInstanceBalancer::alternative;
+        }
+        return new RemoteResilienceInterceptor(remoteRequestFactory, registry, settings, hedgeTarget, virtualThreads);
+    }
+
+    // The balancer runs first so circuits and hedges see the chosen instance
+    @Bean
+    public RestTemplate restTemplate(HttpComponentsClientHttpRequestFactory remoteRequestFactory,
+                                     RemoteInstanceBalancer remoteInstanceBalancer,
+                                     RemoteResilienceInterceptor remoteResilienceInterceptor) {
+        RestTemplate restTemplate = new RestTemplate(remoteRequestFactory);
+        if (balancing()) {
+            restTemplate.getInterceptors().add(remoteInstanceBalancer);
+        }
+        restTemplate.getInterceptors().add(remoteResilienceInterceptor);
+        return restTemplate;
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.supplychainapp.conf;
 
+import jakarta.annotation.PreDestroy;
 import org.example.supplychainapp.Constants;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -10,19 +11,104 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // Admin-only endpoints; also the "write" rate limit group
+    static final String[] ADMIN_WRITE_PATHS = {
+            "/fabric/assets/update/**",
+            "/fabric/assets/createProduct/**",
+            "/fabric/assets/createProducts/**",
+            "/fabric/assets/removeProduct/**",
+            "/fabric/assets/createShipment/**",
+            "/fabric/assets/updateShipment/**"
+    };
+
+    // Writes any authenticated caller may make; rate limited with the "write" group all the same
+    static final String[] USER_WRITE_PATHS = {
+            "/fabric/assets/placeOrder/**"
+    };
+
+    // Endpoints for users and admins; also the "read" rate limit group
+    static final String[] USER_READ_PATHS = {
+            "/fabric/assets/queryProduct/**",
+            "/fabric/assets/queryShipment/**",
+            "/fabric/assets/queryProducts",
+            "/fabric/assets/queryShipments",
+            "/fabric/assets/queryLogByProductId/**",
+            "/fabric/assets/tx/**",
+            "/fabric/assets/queryProductsByCategory/**",
+            "/fabric/assets/queryLowStockProducts",
+            "/fabric/assets/queryProductsByQuantity",
+            "/fabric/assets/queryShipmentsByStatus/**",
+            "/fabric/assets/queryShipmentsByCarrier/**",
+            "/fabric/assets/changes"
+    };
+
     @Value("${security.allowed.paths:/api/auth/**,/swagger-ui/**,/v3/api-docs/**}")
     private String[] allowedPaths;
 
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${jwt.header:Authorization}")
+    private String jwtHeader;
+
+    @Value("${jwt.token.prefix:Bearer }")
+    private String jwtPrefix;
+
+    @Value("${jwt.clock-skew-seconds:30}")
+    private long jwtClockSkewSeconds;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long jwtCacheMaxSize;
+
+    @Value("${jwt.cache.ttl-seconds:300}")
+    private long jwtCacheTtlSeconds;
+
+    @Value("${supplychain.ratelimit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${supplychain.ratelimit.write.per-second:5}")
+    private double rateLimitWritePerSecond;
+
+    @Value("${supplychain.ratelimit.write.burst:20}")
+    private int rateLimitWriteBurst;
+
+    @Value("${supplychain.ratelimit.read.per-second:50}")
+    private double rateLimitReadPerSecond;
+
+    @Value("${supplychain.ratelimit.read.burst:100}")
+    private int rateLimitReadBurst;
+
+    @Value("${supplychain.ratelimit.other.per-second:100}")
+    private double rateLimitOtherPerSecond;
+
+    @Value("${supplychain.ratelimit.other.burst:200}")
+    private int rateLimitOtherBurst;
+
+    @Value("${supplychain.ratelimit.max-callers:100000}")
+    private int rateLimitMaxCallers;
+
+    @Value("${supplychain.ratelimit.sweep-seconds:10}")
+    private long rateLimitSweepSeconds;
+
+    @Value("${supplychain.ratelimit.exempt-ips:}")
+    private String rateLimitExemptIps;
+
+    private RateLimitFilter rateLimitFilter;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -32,23 +118,42 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 // Make session stateless (JWT-based)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // Bearer tokens; not a bean, so it only runs inside this chain and not as a servlet filter too
+                .addFilterBefore(new JwtAuthFilter(jwtSecret, jwtHeader, jwtPrefix, jwtClockSkewSeconds,
+                        jwtCacheMaxSize, jwtCacheTtlSeconds), UsernamePasswordAuthenticationFilter.class)
                 // Define which requests are allowed without authentication
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(allowedPaths).permitAll()
-                        .requestMatchers("/assets/queryLogByProductId/**").hasAnyRole(Constants.ROLE_ADMIN,Constants.ROLE_USER)
-                        .requestMatchers( "/assets/queryProduct/**").hasAnyRole(Constants.ROLE_USER,Constants.ROLE_ADMIN)
-                        .requestMatchers( "/assets/update/**").hasRole(Constants.ROLE_ADMIN)
-                        .requestMatchers( "/assets/createProduct/**").hasRole(Constants.ROLE_ADMIN)
-                        .requestMatchers( "/assets/removeProduct/**").hasRole(Constants.ROLE_ADMIN)
-                        .requestMatchers( "/assets/createShipment/**").hasRole(Constants.ROLE_ADMIN)
-                        .requestMatchers( "/assets/queryShipment/**").hasAnyRole(Constants.ROLE_ADMIN,Constants.ROLE_USER)
-                        .requestMatchers( "/assets/queryLogByProductId/**").hasAnyRole(Constants.ROLE_ADMIN,Constants.ROLE_USER)
-                        .requestMatchers( "/assets/updateShipment/**").hasRole(Constants.ROLE_ADMIN)
+                        .requestMatchers(ADMIN_WRITE_PATHS).hasRole(Constants.ROLE_ADMIN)
+                        .requestMatchers(USER_READ_PATHS).hasAnyRole(Constants.ROLE_ADMIN,Constants.ROLE_USER)
                         .anyRequest().authenticated()
                 );
+        // Per-caller budgets, after authentication so the key is the principal where there is one
+        if (rateLimitEnabled) {
+            rateLimitFilter = rateLimitFilter();
+            http.addFilterAfter(rateLimitFilter, JwtAuthFilter.class);
+        }
         return http.build();
     }
 
+    private RateLimitFilter rateLimitFilter() {
+        Set<String> exempt = Arrays.stream(rateLimitExemptIps.split(","))
+                .map(String::trim).filter(ip -> !ip.isEmpty()).collect(Collectors.toUnmodifiableSet());
+        return new RateLimitFilter(
+                new RateLimitFilter.Budget(rateLimitWritePerSecond, rateLimitWriteBurst),
+                new RateLimitFilter.Budget(rateLimitReadPerSecond, rateLimitReadBurst),
+                new RateLimitFilter.Budget(rateLimitOtherPerSecond, rateLimitOtherBurst),
+                rateLimitMaxCallers, rateLimitSweepSeconds, exempt);
+    }
+
+    // The filter is not a bean, so its sweeper is stopped with this configuration
+    @PreDestroy
+    void stopRateLimitFilter() {
+        if (rateLimitFilter != null) {
+            rateLimitFilter.destroy();
+        }
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
         return authConfig.getAuthenticationManager();
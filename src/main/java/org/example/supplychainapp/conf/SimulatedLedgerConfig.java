@@ -0,0 +1,41 @@
+package org.example.supplychainapp.conf;
+
+import org.example.supplychainapp.service.GatewayPool;
+import org.example.supplychainapp.simulation.SimulatedLedger;
+import org.hyperledger.fabric.gateway.Contract;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Replaces the Fabric gateway with an in-memory ledger when the "simulated" profile is active,
+ * so load and capacity tests can run without a Fabric test network.
+ */
+@Configuration
+@Profile("simulated")
+public class SimulatedLedgerConfig {
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedLedgerConfig.class);
+
+    @Bean
+    public SimulatedLedger simulatedLedger(@Value("${supplychain.simulated.endorse-latency-ms:20}") long endorseLatencyMs,
+                                           @Value("${supplychain.simulated.commit-latency-ms:500}") long commitLatencyMs,
+                                           @Value("${supplychain.simulated.jitter:0.2}") double jitter,
+                                           @Value("${supplychain.simulated.failure-rate:0.0}") double failureRate) {
+        logger.warn("Using simulated ledger: endorse={}ms, commit={}ms, jitter={}, failureRate={}",
+                endorseLatencyMs, commitLatencyMs, jitter, failureRate);
+        return new SimulatedLedger(endorseLatencyMs, commitLatencyMs, jitter, failureRate);
+    }
+
+    @Bean
+    public Contract contract(SimulatedLedger simulatedLedger) {
+        return simulatedLedger.asContract();
+    }
+
+    @Bean
+    public GatewayPool gatewayPool(Contract contract) {
+        return GatewayPool.of(contract);
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.supplychainapp.remote;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Consecutive-failure circuit breaker for one remote endpoint. After failureThreshold failures in
+ * a row the circuit opens and calls are rejected; once openMillis have passed a single probe is let
+ * through, and its outcome closes the circuit or opens it again.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long rejected;
+
+    CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openMillis * 1_000_000L;
+    }
+
+    // False when the call must fail fast; true calls must be followed by onSuccess or onFailure
+    boolean tryAcquire() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.nanoTime() - openedAt < openNanos) {
+                        rejected++;
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    probeInFlight = true;
+                    return true;
+                default:
+                    if (probeInFlight) {
+                        rejected++;
+                        return false;
+                    }
+                    probeInFlight = true;
+                    return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onSuccess() {
+        lock.lock();
+        try {
+            consecutiveFailures = 0;
+            probeInFlight = false;
+            state = State.CLOSED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Returns true when this failure opened the circuit
+    boolean onFailure() {
+        lock.lock();
+        try {
+            consecutiveFailures++;
+            probeInFlight = false;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int consecutiveFailures() {
+        lock.lock();
+        try {
+            return consecutiveFailures;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long rejected() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
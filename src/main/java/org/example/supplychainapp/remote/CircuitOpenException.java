@@ -0,0 +1,13 @@
+package org.example.supplychainapp.remote;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of calling a remote endpoint whose circuit is open. It is an IOException so
+ * RestTemplate surfaces it like any other connection failure.
+ */
+public class CircuitOpenException extends IOException {
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.supplychainapp.remote;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ring buffer of the most recent response times of one endpoint. The requested percentile is
+ * recomputed every few samples rather than on each read, so looking it up stays cheap.
+ */
+final class LatencyWindow {
+
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final long[] samples;
+    private final double percentile;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int next;
+    private int count;
+    private long sinceRecompute;
+    private long cached = -1;
+
+    LatencyWindow(int size, double percentile) {
+        this.samples = new long[Math.max(RECOMPUTE_EVERY, size)];
+        this.percentile = Math.min(1.0, Math.max(0.0, percentile));
+    }
+
+    void record(long nanos) {
+        lock.lock();
+        try {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            if (count < samples.length) {
+                count++;
+            }
+            if (++sinceRecompute >= RECOMPUTE_EVERY) {
+                sinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int index = (int) Math.ceil(percentile * count) - 1;
+                cached = sorted[Math.max(0, Math.min(count - 1, index))];
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The percentile in nanoseconds, or -1 until enough samples have been seen
+    long percentileNanos() {
+        lock.lock();
+        try {
+            return cached;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
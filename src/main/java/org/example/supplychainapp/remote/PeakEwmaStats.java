@@ -0,0 +1,145 @@
+package org.example.supplychainapp.remote;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Load and health of one backend for power-of-two-choices balancing: in-flight calls, a decaying
+ * peak-sensitive latency average, and ejection after consecutive failures. Shared by the remote
+ * instance balancer and the Fabric query peer selector. Guarded by a ReentrantLock rather than its
+ * monitor, so callers on virtual threads never pin; every section is a few arithmetic ops.
+ */
+public class PeakEwmaStats {
+
+    // Decay time constant of the peak-EWMA latency
+    private static final long DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final String name;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int outstanding;
+    private long calls;
+    private double ewma;
+    private long lastUpdate = System.nanoTime();
+    private int consecutiveFailures;
+    private boolean ejected;
+    private long ejectedUntil;
+
+    public PeakEwmaStats(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void start() {
+        lock.lock();
+        try {
+            outstanding++;
+            calls++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void finish() {
+        lock.lock();
+        try {
+            outstanding--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int outstanding() {
+        lock.lock();
+        try {
+            return outstanding;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long calls() {
+        lock.lock();
+        try {
+            return calls;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int consecutiveFailures() {
+        lock.lock();
+        try {
+            return consecutiveFailures;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Peak-sensitive: a sample above the average replaces it, lower samples decay into it
+    public void success(long nanos) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (nanos > ewma) {
+                ewma = nanos;
+            } else {
+                double w = Math.exp(-(double) (now - lastUpdate) / DECAY_NANOS);
+                ewma = ewma * w + nanos * (1.0 - w);
+            }
+            lastUpdate = now;
+            consecutiveFailures = 0;
+            ejected = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a failed call; after ejectAfterFailures in a row (0 never ejects) the backend is
+     * skipped for ejectMillis. Returns true when this failure ejected it, so the caller can log once.
+     */
+    public boolean failure(int ejectAfterFailures, long ejectMillis) {
+        lock.lock();
+        try {
+            consecutiveFailures++;
+            if (ejectAfterFailures <= 0 || consecutiveFailures < ejectAfterFailures) {
+                return false;
+            }
+            long now = System.nanoTime();
+            boolean newlyEjected = !ejected || now - ejectedUntil >= 0;
+            ejected = true;
+            ejectedUntil = now + TimeUnit.MILLISECONDS.toNanos(ejectMillis);
+            return newlyEjected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEjected(long now) {
+        lock.lock();
+        try {
+            return ejected && now - ejectedUntil < 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Current EWMA decayed to now, so an idle backend drifts back towards being chosen
+    public double ewmaNanos(long now) {
+        lock.lock();
+        try {
+            double w = Math.exp(-(double) Math.max(0, now - lastUpdate) / DECAY_NANOS);
+            return ewma * w;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Peak-EWMA latency times (in-flight + 1); a backend without samples costs 0 and gets tried
+    public double cost(long now) {
+        return ewmaNanos(now) * (outstanding() + 1.0);
+    }
+}
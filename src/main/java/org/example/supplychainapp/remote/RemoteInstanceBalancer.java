@@ -0,0 +1,234 @@
+package org.example.supplychainapp.remote;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Client-side load balancing for remote mode. Requests addressed to http://{serviceId}/... are
+ * rewritten to one of the service's instances from the discovery registry. The instance list is
+ * cached locally; the first call after refreshMillis reloads it from the registry.
+ * <p>
+ * An instance is chosen with power-of-two-choices: two random healthy instances are compared and
+ * the cheaper one wins. With peak-EWMA the cost is the decaying, peak-sensitive response time times
+ * (outstanding requests + 1); with least-outstanding it is the outstanding count alone. Instances
+ * with ejectAfterFailures consecutive failures are skipped for ejectMillis; 0 turns ejection off.
+ */
+public class RemoteInstanceBalancer implements ClientHttpRequestInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(RemoteInstanceBalancer.class);
+
+    public static final String STRATEGY_PEAK_EWMA = "peak-ewma";
+    public static final String STRATEGY_LEAST_OUTSTANDING = "least-outstanding";
+
+    public record Settings(String serviceId, String strategy, long refreshMillis,
+                           int ejectAfterFailures, long ejectMillis) {
+    }
+
+    private final ObjectProvider<DiscoveryClient> discoveryClient;
+    private final Settings settings;
+    private final boolean peakEwma;
+    private final ConcurrentMap<URI, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile List<InstanceStats> instances = List.of();
+    private volatile long refreshedAt;
+
+    public RemoteInstanceBalancer(ObjectProvider<DiscoveryClient> discoveryClient, Settings settings) {
+        this.discoveryClient = discoveryClient;
+        this.settings = settings;
+        this.peakEwma = !STRATEGY_LEAST_OUTSTANDING.equalsIgnoreCase(settings.strategy());
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        URI uri = request.getURI();
+        if (!isServiceUri(uri)) {
+            return execution.execute(request, body);
+        }
+        InstanceStats instance = choose(null);
+        if (instance == null) {
+            throw new IOException("No instances of " + settings.serviceId() + " available in the discovery registry");
+        }
+        URI target = rebase(uri, instance.base);
+        HttpRequest rewritten = new HttpRequestWrapper(request) {
+            @Override
+            public URI getURI() {
+                return target;
+            }
+        };
+        instance.start();
+        long start = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(rewritten, body);
+            if (response.getStatusCode().is5xxServerError()) {
+                failure(instance);
+            } else {
+                instance.success(System.nanoTime() - start);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            failure(instance);
+            throw e;
+        } finally {
+            instance.finish();
+        }
+    }
+
+    private void failure(InstanceStats instance) {
+        if (instance.failure(settings.ejectAfterFailures(), settings.ejectMillis())) {
+            logger.warn("Ejecting remote instance {} for {} ms after {} consecutive failures",
+                    instance.base, settings.ejectMillis(), instance.consecutiveFailures());
+        }
+    }
+
+    private boolean isServiceUri(URI uri) {
+        return uri.getHost() != null && uri.getHost().equalsIgnoreCase(settings.serviceId());
+    }
+
+    /**
+     * Another healthy instance of the service than the one the URI already points at, for hedging.
+     * Returns null when there is none.
+     */
+    public URI alternative(URI uri) {
+        URI current = UriComponentsBuilder.fromUri(uri).replacePath(null).replaceQuery(null).build(true).toUri();
+        InstanceStats other = choose(current);
+        return other == null ? null : rebase(uri, other.base);
+    }
+
+    private static URI rebase(URI uri, URI base) {
+        return UriComponentsBuilder.fromUri(uri)
+                .scheme(base.getScheme())
+                .host(base.getHost())
+                .port(base.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    private InstanceStats choose(URI exclude) {
+        List<InstanceStats> all = currentInstances();
+        long now = System.nanoTime();
+        List<InstanceStats> healthy = new ArrayList<>(all.size());
+        for (InstanceStats s : all) {
+            if (!s.base.equals(exclude) && !s.isEjected(now)) {
+                healthy.add(s);
+            }
+        }
+        if (healthy.isEmpty()) {
+            if (exclude != null) {
+                return null;
+            }
+            // Everything is ejected: better to try one than to fail every call
+            healthy = all;
+        }
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        if (healthy.size() == 1) {
+            return healthy.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(healthy.size());
+        int j = random.nextInt(healthy.size() - 1);
+        if (j >= i) {
+            j++;
+        }
+        InstanceStats a = healthy.get(i);
+        InstanceStats b = healthy.get(j);
+        return cost(a, now) <= cost(b, now) ? a : b;
+    }
+
+    private double cost(InstanceStats s, long now) {
+        return peakEwma ? s.cost(now) : s.outstanding() + 1.0;
+    }
+
+    private List<InstanceStats> currentInstances() {
+        long now = System.nanoTime();
+        boolean stale = now - refreshedAt > TimeUnit.MILLISECONDS.toNanos(settings.refreshMillis());
+        if ((stale || instances.isEmpty()) && refreshing.compareAndSet(false, true)) {
+            try {
+                refresh();
+            } finally {
+                refreshedAt = System.nanoTime();
+                refreshing.set(false);
+            }
+        }
+        return instances;
+    }
+
+    private void refresh() {
+        DiscoveryClient client = discoveryClient.getIfAvailable();
+        if (client == null) {
+            return;
+        }
+        List<InstanceStats> fresh = new ArrayList<>();
+        try {
+            for (ServiceInstance instance : client.getInstances(settings.serviceId())) {
+                URI base = UriComponentsBuilder.newInstance()
+                        .scheme(instance.isSecure() ? "https" : "http")
+                        .host(instance.getHost())
+                        .port(instance.getPort())
+                        .build()
+                        .toUri();
+                fresh.add(stats.computeIfAbsent(base, InstanceStats::new));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to refresh instances of {} from discovery; keeping {} cached: {}",
+                    settings.serviceId(), instances.size(), e.getMessage());
+            return;
+        }
+        if (fresh.size() != instances.size()) {
+            logger.info("Remote service {} has {} instances", settings.serviceId(), fresh.size());
+        }
+        stats.keySet().retainAll(fresh.stream().map(s -> s.base).toList());
+        instances = List.copyOf(fresh);
+    }
+
+    // Latency, load and ejection state per cached instance, used by the remote stats endpoint
+    public Map<String, Object> stats() {
+        long now = System.nanoTime();
+        Map<String, Object> perInstance = new LinkedHashMap<>();
+        for (InstanceStats s : instances) {
+            Map<String, Object> i = new LinkedHashMap<>();
+            i.put("outstanding", s.outstanding());
+            i.put("ewmaMillis", s.ewmaNanos(now) / 1_000_000.0);
+            i.put("consecutiveFailures", s.consecutiveFailures());
+            i.put("ejected", s.isEjected(now));
+            perInstance.put(s.base.toString(), i);
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("serviceId", settings.serviceId());
+        out.put("strategy", peakEwma ? STRATEGY_PEAK_EWMA : STRATEGY_LEAST_OUTSTANDING);
+        out.put("instances", perInstance);
+        return out;
+    }
+
+    // Balancing state of one discovered instance, keyed by its base URI
+    static final class InstanceStats extends PeakEwmaStats {
+        final URI base;
+
+        InstanceStats(URI base) {
+            super(base.toString());
+            this.base = base;
+        }
+    }
+}
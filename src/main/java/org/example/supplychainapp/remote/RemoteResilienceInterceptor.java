@@ -0,0 +1,284 @@
+package org.example.supplychainapp.remote;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Failure isolation for remote-mode calls. Every request passes a circuit breaker keyed by remote
+ * instance and endpoint (the path segment after /fabric/assets/), so an unhealthy remote fails fast
+ * instead of every caller waiting for its own connection error. Idempotent GETs to the configured
+ * endpoints can additionally be hedged: if the first instance has not answered within a percentile
+ * of recent latencies, the same request goes to a second instance and the first response wins.
+ * The second instance comes from hedgeTarget, either a fixed URL or another discovered instance.
+ */
+public class RemoteResilienceInterceptor implements ClientHttpRequestInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(RemoteResilienceInterceptor.class);
+
+    private static final String ASSETS_PREFIX = "/fabric/assets/";
+    private static final int LATENCY_WINDOW = 256;
+
+    public record Settings(int failureThreshold, long openMillis, Set<String> hedgedEndpoints,
+                           double hedgePercentile, long hedgeMinDelayMs, long hedgeInitialDelayMs) {
+    }
+
+    @FunctionalInterface
+    private interface RemoteCall {
+        ClientHttpResponse execute() throws IOException;
+    }
+
+    private final ClientHttpRequestFactory hedgeRequestFactory;
+    private final MeterRegistry registry;
+    private final Settings settings;
+    private final UnaryOperator<URI> hedgeTarget;
+    private final ConcurrentMap<String, CircuitBreaker> circuits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong hedgesIssued = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+    private final ExecutorService executor;
+
+    /**
+     * hedgeTarget maps the URI sent to the first instance to the same request on a second one, or
+     * to null when there is no second instance; a null hedgeTarget turns hedging off.
+     */
+    public RemoteResilienceInterceptor(ClientHttpRequestFactory hedgeRequestFactory, MeterRegistry registry,
+                                       Settings settings, UnaryOperator<URI> hedgeTarget, boolean virtualThreads) {
+        this.hedgeRequestFactory = hedgeRequestFactory;
+        this.registry = registry;
+        this.settings = settings;
+        this.hedgeTarget = hedgeTarget;
+        if (virtualThreads) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("remote-hedge-", 1).factory());
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            this.executor = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "remote-hedge-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String endpoint = endpointOf(request.getURI());
+        if (hedgeTarget == null || request.getMethod() != HttpMethod.GET || !settings.hedgedEndpoints().contains(endpoint)) {
+            return guarded(request.getURI(), endpoint, () -> execution.execute(request, body));
+        }
+        return hedged(request, endpoint, () -> execution.execute(request, body));
+    }
+
+    // Hedge target that sends the request to a fixed second instance
+    public static UnaryOperator<URI> fixedHedgeTarget(String baseUrl) {
+        URI base = URI.create(baseUrl.replaceAll("/+$", ""));
+        return uri -> UriComponentsBuilder.fromUri(uri)
+                .scheme(base.getScheme())
+                .host(base.getHost())
+                .port(base.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    static String endpointOf(URI uri) {
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        int start = path.indexOf(ASSETS_PREFIX);
+        if (start < 0) {
+            return path;
+        }
+        start += ASSETS_PREFIX.length();
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+
+    private ClientHttpResponse guarded(URI uri, String endpoint, RemoteCall call) throws IOException {
+        String key = uri.getAuthority() + " " + endpoint;
+        CircuitBreaker breaker = circuits.computeIfAbsent(key,
+                k -> new CircuitBreaker(settings.failureThreshold(), settings.openMillis()));
+        if (!breaker.tryAcquire()) {
+            Counter.builder("supplychain.remote.circuit.rejected")
+                    .description("Remote calls failed fast because the endpoint's circuit was open")
+                    .tag("endpoint", endpoint)
+                    .register(registry)
+                    .increment();
+            throw new CircuitOpenException("Circuit open for remote endpoint " + key);
+        }
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = call.execute();
+        } catch (IOException | RuntimeException e) {
+            failed(breaker, key, e.toString());
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            failed(breaker, key, "status " + response.getStatusCode().value());
+        } else {
+            breaker.onSuccess();
+            latencies.computeIfAbsent(endpoint, k -> new LatencyWindow(LATENCY_WINDOW, settings.hedgePercentile()))
+                    .record(System.nanoTime() - start);
+        }
+        return response;
+    }
+
+    private void failed(CircuitBreaker breaker, String key, String reason) {
+        if (breaker.onFailure()) {
+            logger.warn("Remote endpoint {} is failing ({}); circuit open for {} ms", key, reason, settings.openMillis());
+        }
+    }
+
+    private ClientHttpResponse hedged(HttpRequest request, String endpoint, RemoteCall primaryCall) throws IOException {
+        CompletableFuture<ClientHttpResponse> primary = async(() -> guarded(request.getURI(), endpoint, primaryCall));
+        try {
+            return primary.get(hedgeDelayNanos(endpoint), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Slow or failed primary: race (or fail over to) the second instance
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.thenAccept(RemoteResilienceInterceptor::closeQuietly);
+            throw new InterruptedIOException("Interrupted waiting for " + request.getURI());
+        }
+
+        URI hedgeUri = hedgeTarget.apply(request.getURI());
+        if (hedgeUri == null) {
+            return await(primary, request.getURI());
+        }
+        hedgesIssued.incrementAndGet();
+        hedgeCounter("issued");
+        CompletableFuture<ClientHttpResponse> hedge = async(() -> guarded(hedgeUri, endpoint, () -> {
+            ClientHttpRequest copy = hedgeRequestFactory.createRequest(hedgeUri, HttpMethod.GET);
+            copy.getHeaders().putAll(request.getHeaders());
+            return copy.execute();
+        }));
+
+        // First response wins; the loser's connection is released as soon as it arrives
+        CompletableFuture<ClientHttpResponse> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<ClientHttpResponse> attempt : List.of(primary, hedge)) {
+            attempt.whenComplete((response, error) -> {
+                if (error != null) {
+                    if (failures.incrementAndGet() == 2) {
+                        winner.completeExceptionally(error);
+                    }
+                } else if (!winner.complete(response)) {
+                    closeQuietly(response);
+                }
+            });
+        }
+        ClientHttpResponse response = await(winner, request.getURI());
+        // Counted here rather than in the callback so the stats are current when the caller returns
+        if (hedge.isDone() && !hedge.isCompletedExceptionally() && hedge.join() == response) {
+            hedgesWon.incrementAndGet();
+            hedgeCounter("won");
+        }
+        return response;
+    }
+
+    private long hedgeDelayNanos(String endpoint) {
+        LatencyWindow window = latencies.get(endpoint);
+        long observed = window == null ? -1 : window.percentileNanos();
+        if (observed < 0) {
+            return TimeUnit.MILLISECONDS.toNanos(settings.hedgeInitialDelayMs());
+        }
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(settings.hedgeMinDelayMs()), observed);
+    }
+
+    private void hedgeCounter(String outcome) {
+        Counter.builder("supplychain.remote.hedge")
+                .description("Hedged remote reads sent to a second instance, and how many it answered first")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    private CompletableFuture<ClientHttpResponse> async(RemoteCall call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.execute();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private static ClientHttpResponse await(CompletableFuture<ClientHttpResponse> winner, URI uri) throws IOException {
+        try {
+            return winner.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            winner.thenAccept(RemoteResilienceInterceptor::closeQuietly);
+            throw new InterruptedIOException("Interrupted waiting for " + uri);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException("Remote call failed for " + uri, cause);
+        }
+    }
+
+    private static void closeQuietly(ClientHttpResponse response) {
+        if (response != null) {
+            response.close();
+        }
+    }
+
+    // Circuit state per instance/endpoint and hedging counters, used by the remote stats endpoint
+    public Map<String, Object> stats() {
+        Map<String, Object> circuitStats = new TreeMap<>();
+        circuits.forEach((key, breaker) -> {
+            Map<String, Object> c = new LinkedHashMap<>();
+            c.put("state", breaker.state().name());
+            c.put("consecutiveFailures", breaker.consecutiveFailures());
+            c.put("rejected", breaker.rejected());
+            circuitStats.put(key, c);
+        });
+        Map<String, Object> hedging = new LinkedHashMap<>();
+        hedging.put("enabled", hedgeTarget != null);
+        hedging.put("issued", hedgesIssued.get());
+        hedging.put("won", hedgesWon.get());
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("circuits", circuitStats);
+        out.put("hedging", hedging);
+        return out;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.supplychainapp.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * One page of a product's audit log, written straight to an output stream as
+ * {"productId":..,"cursor":..,"entries":[..],"nextCursor":..}. The cursor is the offset of
+ * the first entry; nextCursor is null on the last page.
+ */
+@FunctionalInterface
+public interface AuditLogPage {
+
+    void writeTo(OutputStream out) throws IOException;
+}
@@ -0,0 +1,73 @@
+package org.example.supplychainapp.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Factories for {@link AuditLogPage} from the two back ends.
+ */
+final class AuditLogPages {
+
+    // The servlet container owns the response stream, so the generator must not close it
+    private static final JsonFactory JSON = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private AuditLogPages() { /* prevent instantiation */ }
+
+    /**
+     * Pages through the chaincode's JSON array with a streaming parser, copying only the requested
+     * entries token by token, so neither the log String nor a Map of it is ever built.
+     */
+    static AuditLogPage fromLedger(String productId, byte[] log, int offset, int pageSize) {
+        return out -> {
+            try (JsonParser parser = JSON.createParser(log);
+                 JsonGenerator gen = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+                gen.writeStartObject();
+                gen.writeStringField("productId", productId);
+                gen.writeStringField("cursor", Integer.toString(offset));
+                gen.writeArrayFieldStart("entries");
+                String nextCursor = null;
+                JsonToken first = parser.nextToken();
+                if (first == JsonToken.START_ARRAY) {
+                    int index = 0;
+                    JsonToken token;
+                    while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                        if (index >= offset + pageSize) {
+                            nextCursor = Integer.toString(index);
+                            break;
+                        }
+                        if (index >= offset) {
+                            gen.copyCurrentStructure(parser);
+                        } else {
+                            parser.skipChildren();
+                        }
+                        index++;
+                    }
+                } else if (first != null && offset == 0) {
+                    // Chaincode returned a single entry rather than an array
+                    gen.copyCurrentStructure(parser);
+                }
+                gen.writeEndArray();
+                gen.writeStringField("nextCursor", nextCursor);
+                gen.writeEndObject();
+            }
+        };
+    }
+
+    // Pipes an already-paged body from a remote instance through unchanged, then releases the connection
+    static AuditLogPage fromRemote(ClientHttpResponse response) {
+        return out -> {
+            try (response) {
+                StreamUtils.copy(response.getBody(), out);
+            }
+        };
+    }
+}
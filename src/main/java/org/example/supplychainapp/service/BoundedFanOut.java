@@ -0,0 +1,77 @@
+package org.example.supplychainapp.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs one task per item, at most parallelism at a time, and returns the results in input order.
+ * On platform threads a fixed pool of that size is the bound; with virtual threads every item gets
+ * its own thread and a semaphore bounds how many run. Shared by the bulk create and multi-get
+ * services.
+ */
+public class BoundedFanOut {
+
+    private final ExecutorService executor;
+    // Only with virtual threads; the fixed pool already bounds platform threads
+    private final Semaphore permits;
+
+    public BoundedFanOut(String threadPrefix, int parallelism, boolean virtualThreads) {
+        int size = Math.max(1, parallelism);
+        if (virtualThreads) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadPrefix, 1).factory());
+            this.permits = new Semaphore(size);
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(size, r -> {
+                Thread t = new Thread(r, threadPrefix + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            this.permits = null;
+        }
+    }
+
+    /**
+     * Applies task to every item concurrently and waits for all of them. task must not throw;
+     * interrupted is the result for an item whose thread was interrupted waiting for a permit.
+     */
+    public <T, R> List<R> map(Collection<T> items, Function<T, R> task, Function<T, R> interrupted) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(CompletableFuture.supplyAsync(() -> run(item, task, interrupted), executor));
+        }
+        List<R> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<R> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    private <T, R> R run(T item, Function<T, R> task, Function<T, R> interrupted) {
+        if (permits == null) {
+            return task.apply(item);
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return interrupted.apply(item);
+        }
+        try {
+            return task.apply(item);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.supplychainapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.supplychainapp.Product;
+import org.example.supplychainapp.conf.RequestLogSampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates many products at once by pipelining {@link FabricService#createProduct} calls on a
+ * bounded worker pool, so commit latency of the individual transactions overlaps. When virtual
+ * threads are enabled each item gets its own virtual thread and a semaphore bounds parallelism.
+ */
+@Service
+public class BulkProductService {
+    private static final Logger logger = LoggerFactory.getLogger(BulkProductService.class);
+
+    public static final String STATUS_CREATED = "created";
+    public static final String STATUS_ALREADY_EXISTS = "already-exists";
+    public static final String STATUS_FAILED = "failed";
+
+    private final FabricService fabricService;
+    private final BoundedFanOut fanOut;
+
+    public BulkProductService(FabricService fabricService,
+                              @Value("${supplychain.bulk.parallelism:16}") int parallelism,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.fabricService = fabricService;
+        this.fanOut = new BoundedFanOut("bulk-submit-", parallelism, virtualThreads);
+    }
+
+    /**
+     * Submits every product concurrently (bounded by the pool size) and waits for all of them.
+     * Results are returned in input order, one entry per product.
+     */
+    public List<Map<String, String>> createProducts(List<Product> products) {
+        logger.info(RequestLogSampler.REQUEST, "Service: Bulk creating {} products", products.size());
+        return fanOut.map(products, this::createOne,
+                product -> result(product == null ? null : product.getProductId(), STATUS_FAILED, "Interrupted"));
+    }
+
+    private Map<String, String> createOne(Product product) {
+        String productId = product == null ? null : product.getProductId();
+        if (product == null || productId == null || productId.isBlank()
+                || product.getProductName() == null || product.getProductName().isBlank()
+                || product.getCategory() == null || product.getCategory().isBlank()
+                || product.getQuantity() == null) {
+            return result(productId, STATUS_FAILED, "Missing required product fields: productId, productName, category, quantity");
+        }
+        try {
+            fabricService.createProduct(productId, product.getProductName(), product.getCategory(),
+                    product.getQuantity().toString());
+            return result(productId, STATUS_CREATED, null);
+        } catch (ProductAlreadyExistsException pae) {
+            return result(productId, STATUS_ALREADY_EXISTS, null);
+        } catch (FabricServiceException e) {
+            if (e.getCode() == ErrorCode.ALREADY_EXISTS) {
+                return result(productId, STATUS_ALREADY_EXISTS, null);
+            }
+            logger.warn("Service: Bulk create failed for id={} error={}", productId, e.getMessage());
+            return result(productId, STATUS_FAILED, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warn("Service: Bulk create failed for id={} unexpected error={}", productId, e.getMessage());
+            return result(productId, STATUS_FAILED, e.getMessage());
+        }
+    }
+
+    private static Map<String, String> result(String productId, String status, String error) {
+        Map<String, String> out = new LinkedHashMap<>();
+        out.put("productId", productId == null ? "" : productId);
+        out.put("status", status);
+        if (error != null) {
+            out.put("error", error);
+        }
+        return out;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOut.shutdown();
+    }
+}
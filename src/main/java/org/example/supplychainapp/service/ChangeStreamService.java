@@ -0,0 +1,271 @@
+package org.example.supplychainapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes product and shipment changes to server-sent event clients as blocks commit. All clients
+ * share the materialized view's single block subscription; each change is serialized once and
+ * offered to every interested client's bounded queue, which a sender task drains to the socket.
+ * The block event thread never waits on a client: a client whose queue fills up is sent an
+ * "overflow" event and disconnected, and is expected to re-read current state and resubscribe.
+ */
+@Service
+public class ChangeStreamService {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeStreamService.class);
+
+    private final LedgerView ledgerView;
+    private final int maxClients;
+    private final int queueCapacity;
+    private final long timeoutMs;
+    private final long heartbeatSeconds;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Slots taken under maxClients; reserved before a subscriber is added, released when it is removed
+    private final AtomicInteger clients = new AtomicInteger();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeat;
+    private final AtomicLong eventsPublished = new AtomicLong();
+    private final AtomicLong slowDisconnects = new AtomicLong();
+
+    public ChangeStreamService(LedgerView ledgerView,
+                               @Value("${supplychain.changes.max-clients:1000}") int maxClients,
+                               @Value("${supplychain.changes.queue-capacity:256}") int queueCapacity,
+                               @Value("${supplychain.changes.timeout-ms:1800000}") long timeoutMs,
+                               @Value("${supplychain.changes.heartbeat-seconds:15}") long heartbeatSeconds,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.ledgerView = ledgerView;
+        this.maxClients = maxClients;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.timeoutMs = timeoutMs;
+        this.heartbeatSeconds = heartbeatSeconds;
+        if (virtualThreads) {
+            this.senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-send-", 1).factory());
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            this.senders = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "sse-send-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sse-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PostConstruct
+    void register() {
+        ledgerView.addChangeListener(this::publish);
+        if (heartbeatSeconds > 0) {
+            heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        for (Subscriber s : subscribers) {
+            s.emitter.complete();
+        }
+        senders.shutdown();
+    }
+
+    // Changes are only known where the materialized view follows blocks (local mode)
+    public boolean isAvailable() {
+        return ledgerView.isActive();
+    }
+
+    /**
+     * Opens a stream for changes to the given products (including their shipments) and shipments.
+     * Both sets empty means every change. Throws IllegalStateException when at the client limit.
+     */
+    public SseEmitter subscribe(Set<String> productIds, Set<String> shipmentIds) {
+        if (clients.incrementAndGet() > maxClients) {
+            clients.decrementAndGet();
+            throw new IllegalStateException("Too many change stream clients, limit is " + maxClients);
+        }
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(emitter, productIds, shipmentIds);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+        logger.info("Change stream client subscribed: products={}, shipments={}, clients={}",
+                productIds.size(), shipmentIds.size(), subscribers.size());
+        return emitter;
+    }
+
+    // Package-private so tests can watch what is sent
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            clients.decrementAndGet();
+        }
+    }
+
+    // Runs on the block event thread: serialize once, then only non-blocking queue offers
+    void publish(List<LedgerView.Change> changes) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (LedgerView.Change change : changes) {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            try {
+                event = SseEmitter.event()
+                        .id(Long.toString(change.blockNumber()))
+                        .name(change.type())
+                        .data(objectMapper.writeValueAsString(change))
+                        .build();
+            } catch (JsonProcessingException e) {
+                logger.warn("Failed to serialize ledger change id={}: {}", change.id(), e.getMessage());
+                continue;
+            }
+            eventsPublished.incrementAndGet();
+            for (Subscriber s : subscribers) {
+                if (s.wants(change)) {
+                    s.offer(event);
+                }
+            }
+        }
+    }
+
+    private void sendHeartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("keep-alive").build();
+        for (Subscriber s : subscribers) {
+            s.offer(ping);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("available", isAvailable());
+        out.put("clients", subscribers.size());
+        out.put("eventsPublished", eventsPublished.get());
+        out.put("slowDisconnects", slowDisconnects.get());
+        return out;
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final Set<String> productIds;
+        final Set<String> shipmentIds;
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Set<String> productIds, Set<String> shipmentIds) {
+            this.emitter = emitter;
+            this.productIds = productIds;
+            this.shipmentIds = shipmentIds;
+        }
+
+        boolean wants(LedgerView.Change change) {
+            if (productIds.isEmpty() && shipmentIds.isEmpty()) {
+                return true;
+            }
+            if (LedgerView.TYPE_SHIPMENT.equals(change.type()) && shipmentIds.contains(change.id())) {
+                return true;
+            }
+            return change.productId() != null && productIds.contains(change.productId());
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                overflow();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    draining.set(false);
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void overflow() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            remove(this);
+            queue.clear();
+            slowDisconnects.incrementAndGet();
+            logger.warn("Change stream client fell more than {} events behind; disconnecting", queueCapacity);
+            try {
+                senders.execute(() -> {
+                    try {
+                        emitter.send(SseEmitter.event().name("overflow").data("Client too slow; re-read state and resubscribe"));
+                    } catch (IOException | IllegalStateException e) {
+                        // client is gone already
+                    }
+                    emitter.complete();
+                });
+            } catch (RuntimeException e) {
+                // Shutting down: no sender left to tell the client why
+                emitter.complete();
+            }
+        }
+
+        void close() {
+            closed = true;
+            remove(this);
+            queue.clear();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.supplychainapp.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive limit on concurrent calls to a back end, in the style of the gradient limiters from
+ * Netflix concurrency-limits. A long-term average of the call latency is compared with the recent
+ * one: while they match the limit grows by about its square root per sample, and as latency rises
+ * above tolerance x the long-term average (queueing at the peers) the limit shrinks by up to half.
+ * Calls that fail with a timeout or unavailable peer cut it multiplicatively (AIMD). Samples taken
+ * while under half the limit is in use do not raise it. Calls over the limit are rejected at once
+ * instead of waiting.
+ */
+public class ConcurrencyLimiter {
+
+    public record Settings(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                           double backoffRatio) {
+    }
+
+    // Samples in the long-term and the recent latency averages
+    private static final double LONG_WINDOW = 600;
+    private static final double SHORT_WINDOW = 10;
+
+    private final Settings settings;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile int limit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private double estimatedLimit;
+    private double longRtt;
+    private double shortRtt;
+
+    public ConcurrencyLimiter(Settings settings) {
+        this.settings = settings;
+        this.estimatedLimit = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), settings.initialLimit()));
+        this.limit = (int) estimatedLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends a call let through by {@link #tryAcquire}. didDrop marks calls the back end failed to
+     * answer (timeouts, unavailable); other failures are normal latency samples.
+     */
+    public void release(long rttNanos, boolean didDrop) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (didDrop) {
+            dropped.incrementAndGet();
+        }
+        update(rttNanos, inFlightBefore, didDrop);
+    }
+
+    private void update(long rttNanos, int inFlightBefore, boolean didDrop) {
+        lock.lock();
+        try {
+            if (didDrop) {
+                setLimit(estimatedLimit * settings.backoffRatio());
+                return;
+            }
+            double rtt = Math.max(1, rttNanos);
+            if (longRtt == 0) {
+                longRtt = rtt;
+                shortRtt = rtt;
+            }
+            longRtt += (rtt - longRtt) / LONG_WINDOW;
+            shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+            // After a lasting drop in latency let the long-term average catch up quickly
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, settings.tolerance() * longRtt / shortRtt));
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            // Mostly idle: the sample says nothing about a higher limit
+            if (newLimit > estimatedLimit && inFlightBefore < estimatedLimit / 2) {
+                return;
+            }
+            setLimit(estimatedLimit * (1 - settings.smoothing()) + newLimit * settings.smoothing());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void setLimit(double newLimit) {
+        estimatedLimit = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    public Map<String, Object> stats() {
+        lock.lock();
+        try {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("limit", limit);
+            out.put("inFlight", inFlight.get());
+            out.put("accepted", accepted.get());
+            out.put("rejected", rejected.get());
+            out.put("dropped", dropped.get());
+            out.put("longRttMillis", longRtt / 1_000_000.0);
+            out.put("shortRttMillis", shortRtt / 1_000_000.0);
+            return out;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.supplychainapp.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpStatusCodeException;
+
+/**
+ * What a failed ledger or remote call means for the caller. Decided once, where the failure is
+ * caught ({@link #classify}), and carried on {@link FabricServiceException}; each code maps to one
+ * HTTP status. Expected business outcomes are created without a stack trace.
+ */
+public enum ErrorCode {
+    NOT_FOUND(HttpStatus.NOT_FOUND, true),
+    ALREADY_EXISTS(HttpStatus.CONFLICT, true),
+    INSUFFICIENT_STOCK(HttpStatus.CONFLICT, true),
+    // Still conflicting after WriteSequencer's retries
+    MVCC_CONFLICT(HttpStatus.CONFLICT, false),
+    UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, false),
+    // Shed by LoadShedder before reaching the ledger
+    OVERLOADED(HttpStatus.SERVICE_UNAVAILABLE, false),
+    // Anything else, answered as a bad request as before
+    FAILED(HttpStatus.BAD_REQUEST, false);
+
+    private static final String CODE_FIELD = "\"code\":\"";
+
+    private final HttpStatus status;
+    private final boolean expected;
+
+    ErrorCode(HttpStatus status, boolean expected) {
+        this.status = status;
+        this.expected = expected;
+    }
+
+    public HttpStatus status() {
+        return status;
+    }
+
+    public boolean isExpected() {
+        return expected;
+    }
+
+    /**
+     * Classifies a failure from its cause chain: an already classified FabricServiceException, the
+     * code or status of a remote error response, the chaincode error message, then transport errors.
+     */
+    public static ErrorCode classify(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof FabricServiceException fse && fse.getCode() != FAILED) {
+                return fse.getCode();
+            }
+            if (t instanceof LoadShedException) {
+                return OVERLOADED;
+            }
+            if (t instanceof HttpStatusCodeException he) {
+                ErrorCode remote = fromRemote(he);
+                if (remote != FAILED) {
+                    return remote;
+                }
+            }
+            ErrorCode fromMessage = fromChaincodeMessage(t.getMessage());
+            if (fromMessage != FAILED) {
+                return fromMessage;
+            }
+            if (t instanceof IllegalStateException && GatewayPool.NOT_CONNECTED.equals(t.getMessage())) {
+                return UNAVAILABLE;
+            }
+        }
+        return e != null && GatewayPool.isConnectionFailure(e) ? UNAVAILABLE : FAILED;
+    }
+
+    // Error bodies of this service carry "code"; older instances are told apart by status only
+    private static ErrorCode fromRemote(HttpStatusCodeException he) {
+        String body = he.getResponseBodyAsString();
+        int i = body.indexOf(CODE_FIELD);
+        if (i >= 0) {
+            int start = i + CODE_FIELD.length();
+            int end = body.indexOf('"', start);
+            String name = end > start ? body.substring(start, end) : "";
+            for (ErrorCode code : values()) {
+                if (code.name().equals(name)) {
+                    return code;
+                }
+            }
+        }
+        return switch (he.getStatusCode().value()) {
+            case 404 -> NOT_FOUND;
+            case 409 -> ALREADY_EXISTS;
+            case 503 -> UNAVAILABLE;
+            default -> FAILED;
+        };
+    }
+
+    // Chaincode errors only come as text, e.g. "Product p1 does not exist"
+    static ErrorCode fromChaincodeMessage(String msg) {
+        if (msg == null || msg.isEmpty()) {
+            return FAILED;
+        }
+        if (msg.contains("MVCC_READ_CONFLICT") || msg.contains("PHANTOM_READ_CONFLICT")) {
+            return MVCC_CONFLICT;
+        }
+        String lower = msg.toLowerCase();
+        if (lower.contains("insufficient stock") || lower.contains("insufficient quantity")) {
+            return INSUFFICIENT_STOCK;
+        }
+        if (lower.contains("already exists")) {
+            return ALREADY_EXISTS;
+        }
+        if (lower.contains("does not exist") || lower.contains("not found")) {
+            return NOT_FOUND;
+        }
+        return FAILED;
+    }
+}
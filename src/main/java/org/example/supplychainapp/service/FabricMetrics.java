@@ -0,0 +1,125 @@
+package org.example.supplychainapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hyperledger.fabric.gateway.DefaultCommitHandlers;
+import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timers for every chaincode function FabricService calls. Percentiles and histograms
+ * are configured through management.metrics.distribution.* so SLO buckets stay in properties.
+ */
+@Component
+public class FabricMetrics {
+
+    public static final String TRANSACTION_TIMER = "fabric.transaction";
+    public static final String PHASE_TIMER = "fabric.transaction.phase";
+    public static final String COALESCED_COUNTER = "fabric.read.coalesced";
+    public static final String CONFLICT_COUNTER = "fabric.transaction.conflict";
+    public static final String LIMIT_GAUGE = "fabric.limit";
+    public static final String LIMIT_IN_FLIGHT_GAUGE = "fabric.limit.in-flight";
+    public static final String LIMIT_REJECTED_COUNTER = "fabric.limit.rejected";
+
+    public static final String MODE_LOCAL = "local";
+    public static final String MODE_REMOTE = "remote";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_NOT_FOUND = "not-found";
+    public static final String OUTCOME_CONFLICT = "conflict";
+    public static final String OUTCOME_ERROR = "error";
+
+    public static final String PHASE_ENDORSE = "endorse";
+    public static final String PHASE_COMMIT = "commit";
+
+    public static final String CONFLICT_RETRIED = "retried";
+    public static final String CONFLICT_EXHAUSTED = "exhausted";
+
+    private final MeterRegistry registry;
+    private final boolean phaseTimingEnabled;
+
+    public FabricMetrics(MeterRegistry registry,
+                         @Value("${supplychain.metrics.submit-phases:true}") boolean phaseTimingEnabled) {
+        this.registry = registry;
+        this.phaseTimingEnabled = phaseTimingEnabled;
+    }
+
+    public boolean isPhaseTimingEnabled() {
+        return phaseTimingEnabled;
+    }
+
+    public void recordCall(String function, String mode, String endpoint, String outcome, long nanos) {
+        Timer.builder(TRANSACTION_TIMER)
+                .description("Latency of chaincode functions invoked by FabricService")
+                .tag("function", function)
+                .tag("mode", mode)
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPhase(String function, String phase, long nanos) {
+        Timer.builder(PHASE_TIMER)
+                .description("Endorsement and commit phases of local Fabric submits")
+                .tag("function", function)
+                .tag("phase", phase)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // A read that joined another caller's in-flight call instead of hitting the ledger itself
+    public void recordCoalesced(String function) {
+        Counter.builder(COALESCED_COUNTER)
+                .description("Reads served by an identical in-flight chaincode call")
+                .tag("function", function)
+                .register(registry)
+                .increment();
+    }
+
+    // An MVCC conflict on a local submit, either retried or given up on
+    public void recordConflict(String function, String result) {
+        Counter.builder(CONFLICT_COUNTER)
+                .description("Local submits invalidated by an MVCC read conflict")
+                .tag("function", function)
+                .tag("result", result)
+                .register(registry)
+                .increment();
+    }
+
+    // One per submit: must be created right before the transaction is submitted
+    public CommitHandlerFactory phaseTimer(String function) {
+        return new PhaseTimingCommitHandlerFactory(this, function, DefaultCommitHandlers.MSPID_SCOPE_ALLFORTX);
+    }
+
+    // Current adaptive limit, calls in flight and calls shed, tagged read or write
+    public void registerLimiter(String kind, ConcurrencyLimiter limiter) {
+        Gauge.builder(LIMIT_GAUGE, limiter, ConcurrencyLimiter::limit)
+                .description("Adaptive concurrency limit of ledger calls")
+                .tag("kind", kind)
+                .register(registry);
+        Gauge.builder(LIMIT_IN_FLIGHT_GAUGE, limiter, ConcurrencyLimiter::inFlight)
+                .description("Ledger calls in flight under the concurrency limit")
+                .tag("kind", kind)
+                .register(registry);
+        FunctionCounter.builder(LIMIT_REJECTED_COUNTER, limiter, ConcurrencyLimiter::rejected)
+                .description("Ledger calls rejected because the concurrency limit was reached")
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    // Maps a failed call to the outcome tag
+    public static String classify(Throwable e) {
+        return switch (ErrorCode.classify(e)) {
+            case NOT_FOUND -> OUTCOME_NOT_FOUND;
+            case ALREADY_EXISTS, MVCC_CONFLICT -> OUTCOME_CONFLICT;
+            default -> OUTCOME_ERROR;
+        };
+    }
+}
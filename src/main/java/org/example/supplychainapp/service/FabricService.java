@@ -2,23 +2,36 @@ package org.example.supplychainapp.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.hyperledger.fabric.gateway.Contract;
+import org.example.supplychainapp.conf.RequestLogSampler;
 import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.DefaultCommitHandlers;
+import org.hyperledger.fabric.gateway.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @SuppressWarnings({"squid:S1166","squid:S2142"})
 public class FabricService {
-    private final Contract contract;
+    private final GatewayPool contracts;
     private static final Logger logger = LoggerFactory.getLogger(FabricService.class);
 
     // --- constants to avoid duplicated literals ---
@@ -26,6 +39,11 @@ public class FabricService {
     private static final String KEY_PRODUCT = "product";
     private static final String KEY_PRODUCT_ID = "productId";
     private static final String KEY_QUANTITY = "quantity";
+    private static final String FN_READ_PRODUCT = "AssetContract:readProduct";
+    private static final String FN_GET_SHIPMENT = "ShipmentContract:getShipment";
+    private static final String FN_GET_AUDIT_LOG = "AssetContract:getAuditLogsByProductId";
+    // Limited as reads by LoadShedder; every other function is a write
+    private static final Set<String> READ_FUNCTIONS = Set.of(FN_READ_PRODUCT, FN_GET_SHIPMENT, FN_GET_AUDIT_LOG);
     // Make this configurable via property so it's not a hard-coded URI
     @Value("${supplychain.remote.createProductPath:/fabric/assets/createProduct}")
     private String remoteCreateProductPath;
@@ -33,20 +51,109 @@ public class FabricService {
     private final boolean remoteEnabled;
     private final String remoteUrl;
     private final RestTemplate restTemplate;
+    private final LedgerReadCache readCache;
+    private final TransactionTracker txTracker;
+    private final WriteSequencer writeSequencer;
+    private final LoadShedder loadShedder;
+    private final FabricMetrics metrics;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    // Concurrent reads of the same id share one ledger call
+    private final SingleFlight<byte[]> productReads;
+    private final SingleFlight<byte[]> shipmentReads;
+    private final SingleFlight<byte[]> auditLogReads;
 
-    public FabricService(Contract contract,
+    public FabricService(GatewayPool contracts,
                          @Value("${supplychain.remote.enabled:false}") boolean remoteEnabled,
                          @Value("${supplychain.remote.url:}") String remoteUrl,
-                         RestTemplate restTemplate) {
-        this.contract = contract;
+                         @Value("${supplychain.remote.use-eureka:false}") boolean useEureka,
+                         @Value("${supplychain.remote.serviceId:supplychain-service}") String serviceId,
+                         RestTemplate restTemplate,
+                         LedgerReadCache readCache,
+                         TransactionTracker txTracker,
+                         WriteSequencer writeSequencer,
+                         LoadShedder loadShedder,
+                         FabricMetrics metrics) {
+        this.contracts = contracts;
         this.remoteEnabled = remoteEnabled;
-        this.remoteUrl = remoteUrl != null ? remoteUrl.replaceAll("/+$", "") : "";
+        String url = remoteUrl != null ? remoteUrl.replaceAll("/+$", "") : "";
+        // Without a fixed URL, address the service by id; RemoteInstanceBalancer resolves it per call
+        if (url.isBlank() && useEureka && serviceId != null && !serviceId.isBlank()) {
+            url = "http://" + serviceId;
+        }
+        this.remoteUrl = url;
         this.restTemplate = restTemplate;
+        this.readCache = readCache;
+        this.txTracker = txTracker;
+        this.writeSequencer = writeSequencer;
+        this.loadShedder = loadShedder;
+        this.metrics = metrics;
+        this.productReads = new SingleFlight<>(() -> metrics.recordCoalesced(FN_READ_PRODUCT));
+        this.shipmentReads = new SingleFlight<>(() -> metrics.recordCoalesced(FN_GET_SHIPMENT));
+        this.auditLogReads = new SingleFlight<>(() -> metrics.recordCoalesced(FN_GET_AUDIT_LOG));
+    }
+
+    // A call into the ledger (local or remote) that is timed as one chaincode function
+    @FunctionalInterface
+    private interface FabricCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private String mode() {
+        return remoteEnabled && remoteUrl != null && !remoteUrl.isBlank() ? FabricMetrics.MODE_REMOTE : FabricMetrics.MODE_LOCAL;
+    }
+
+    // Records latency and outcome of one chaincode function call, tagged by mode and endpoint; calls over
+    // the read or write concurrency limit are shed before they reach the ledger
+    private <T, E extends Exception> T timed(String function, String endpoint, FabricCall<T, E> call) throws E {
+        return loadShedder.execute(!READ_FUNCTIONS.contains(function), () -> measured(function, endpoint, call));
+    }
+
+    // Synchronous writes: a local submit takes its write permit inside the sequencer (see submitLocal),
+    // so same-key lock waits and conflict backoff do not count as ledger latency or in-flight load
+    private <T, E extends Exception> T timedWrite(String function, String endpoint, FabricCall<T, E> call) throws E {
+        if (FabricMetrics.MODE_REMOTE.equals(mode())) {
+            return timed(function, endpoint, call);
+        }
+        return measured(function, endpoint, call);
+    }
+
+    private <T, E extends Exception> T measured(String function, String endpoint, FabricCall<T, E> call) throws E {
+        long start = System.nanoTime();
+        String outcome = FabricMetrics.OUTCOME_SUCCESS;
+        try {
+            return call.call();
+        } catch (Exception e) {
+            outcome = FabricMetrics.classify(e);
+            throw e;
+        } finally {
+            metrics.recordCall(function, mode(), endpoint, outcome, System.nanoTime() - start);
+        }
+    }
+
+    public Map<String, Object> limitStats() {
+        return loadShedder.stats();
+    }
+
+    // Local submit; when phase timing is on the commit handler is wrapped to time endorse vs commit
+    private byte[] submitLocal(String function, String... args) throws Exception {
+        return contracts.execute(contract -> {
+            if (!metrics.isPhaseTimingEnabled()) {
+                return contract.submitTransaction(function, args);
+            }
+            return contract.createTransaction(function)
+                    .setCommitHandler(metrics.phaseTimer(function))
+                    .submit(args);
+        });
+    }
+
+    // Local submit ordered against other writes to the same keys, with MVCC conflicts retried; each
+    // attempt is limited as a write once it holds its keys
+    private byte[] submitLocal(List<String> keys, String function, String... args) throws Exception {
+        return writeSequencer.submit(function, keys, () -> loadShedder.execute(true, () -> submitLocal(function, args)));
     }
 
     // Helper to serialize payloads to JSON and wrap checked exceptions
-    private String toJson(Object obj) throws FabricServiceException {
+    String toJson(Object obj) throws FabricServiceException {
         try {
             return objectMapper.writeValueAsString(obj);
         } catch (JsonProcessingException e) {
@@ -55,7 +162,7 @@ public class FabricService {
     }
 
     // Shared helper to extract the "message" or fallback body from a remote ResponseEntity
-    private String extractMessageFromBody(ResponseEntity<String> resp) throws FabricServiceException {
+    String extractMessageFromBody(ResponseEntity<String> resp) throws FabricServiceException {
         try {
             Map<?, ?> map = objectMapper.readValue(resp.getBody(), Map.class);
             if (map != null && map.containsKey(KEY_MESSAGE) && map.get(KEY_MESSAGE) != null) {
@@ -83,7 +190,7 @@ public class FabricService {
             if (product == null) {
                 throw new ContractException("Log not found");
             }
-            return product.toString().getBytes();
+            return product.toString().getBytes(StandardCharsets.UTF_8);
         } catch (HttpStatusCodeException he) {
             String body = he.getResponseBodyAsString();
             throw new ContractException("Log not found for productId=" + productId + ", remoteBody=" + body, he);
@@ -95,7 +202,11 @@ public class FabricService {
     }
 
     public byte[] createProduct(String productId, String name, String category, String quantity) throws FabricServiceException {
-        logger.info("Service: Creating product with id={}, name={}, category={}, quantity={}", productId, name, category, quantity);
+        return timedWrite("AssetContract:createProduct", "createProduct", () -> doCreateProduct(productId, name, category, quantity));
+    }
+
+    private byte[] doCreateProduct(String productId, String name, String category, String quantity) throws FabricServiceException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Creating product with id={}, name={}, category={}, quantity={}", productId, name, category, quantity);
         if (remoteEnabled && remoteUrl != null && !remoteUrl.isBlank()) {
             String url = remoteUrl + remoteCreateProductPath;
             Map<String, Object> payload = new HashMap<>();
@@ -109,12 +220,12 @@ public class FabricService {
             HttpEntity<String> entity = new HttpEntity<>(toJson(payload), headers);
             try {
                 ResponseEntity<String> resp = restTemplate.postForEntity(url, entity, String.class);
-                logger.info("Service: Remote product create returned status={}", resp.getStatusCode());
+                logger.info(RequestLogSampler.REQUEST, "Service: Remote product create returned status={}", resp.getStatusCode());
                 String message = extractMessageFromBody(resp);
                 if (message != null && message.toLowerCase().contains("already exists")) {
                     throw new ProductAlreadyExistsException(String.format("Product with id: %s already exists", productId));
                 }
-                return message == null ? new byte[0] : message.getBytes();
+                return message == null ? new byte[0] : message.getBytes(StandardCharsets.UTF_8);
             } catch (HttpStatusCodeException he) {
                 String body = he.getResponseBodyAsString();
                 throw new FabricServiceException("Failed to create product: id=" + productId + ", remoteBody=" + body, he);
@@ -124,16 +235,37 @@ public class FabricService {
         }
 
         try {
-            byte[] result = contract.submitTransaction("AssetContract:createProduct", productId, name, category, quantity);
-            logger.info("Service: Product created successfully: id={}", productId);
+            byte[] result = submitLocal(List.of(productId), "AssetContract:createProduct", productId, name, category, quantity);
+            logger.info(RequestLogSampler.REQUEST, "Service: Product created successfully: id={}", productId);
             return result;
+        } catch (LoadShedException e) {
+            throw e;
         } catch (Exception e) {
             throw new FabricServiceException("Failed to create product: id=" + productId + ": " + e.getMessage(), e);
         }
     }
 
     public byte[] readProduct(String productId) throws FabricServiceException {
-        logger.info("Service: Reading product with id={}", productId);
+        logger.info(RequestLogSampler.REQUEST, "Service: Reading product with id={}", productId);
+        byte[] cached = readCache.getProduct(productId);
+        if (cached != null) {
+            logger.debug("Service: Product served from cache: id={}", productId);
+            return cached;
+        }
+        long version = readCache.version(productId);
+        // Keyed by the id's version too, so a read started after a write to the id never joins an older fetch
+        return productReads.execute(flightKey(version, productId), () -> {
+            byte[] result = timed(FN_READ_PRODUCT, "queryProduct", () -> fetchProduct(productId));
+            readCache.putProduct(productId, result, version);
+            return result;
+        });
+    }
+
+    private static String flightKey(long version, String id) {
+        return version + "\u0000" + id;
+    }
+
+    private byte[] fetchProduct(String productId) throws FabricServiceException {
         if (remoteEnabled && remoteUrl != null && !remoteUrl.isBlank()) {
             String url = String.format("%s/fabric/assets/queryProduct/%s", remoteUrl, productId);
             try {
@@ -148,18 +280,18 @@ public class FabricService {
                 if (product == null) {
                     throw new ProductNotFoundException(String.format("Product with id: %s is not found", productId));
                 }
-                return product.toString().getBytes();
+                return product.toString().getBytes(StandardCharsets.UTF_8);
             } catch (HttpStatusCodeException he) {
                 String body = he.getResponseBodyAsString();
-                throw new ProductNotFoundException(String.format("Product with id: %s is not found, remoteBody=%s", productId, body), he);
+                throw new FabricServiceException(String.format("Failed to read product: id=%s, remoteBody=%s", productId, body), he);
             } catch (Exception e) {
                 throw new FabricServiceException("Failed to read product: id=" + productId + ": " + e.getMessage(), e);
             }
         }
 
         try {
-            byte[] result = contract.evaluateTransaction("AssetContract:readProduct", productId);
-            logger.info("Service: Product details fetched: id={}", productId);
+            byte[] result = contracts.execute(c -> c.evaluateTransaction("AssetContract:readProduct", productId));
+            logger.info(RequestLogSampler.REQUEST, "Service: Product details fetched: id={}", productId);
             return result;
         } catch (Exception e) {
             throw new FabricServiceException("Failed to read product: id=" + productId + ": " + e.getMessage(), e);
@@ -167,7 +299,11 @@ public class FabricService {
     }
 
     public byte[] updateProductQuantity(String productId, String quantity) throws FabricServiceException {
-        logger.info("Service: Updating product quantity: id={}, new quantity={}", productId, quantity);
+        return timedWrite("AssetContract:updateProductQuantity", "update", () -> doUpdateProductQuantity(productId, quantity));
+    }
+
+    private byte[] doUpdateProductQuantity(String productId, String quantity) throws FabricServiceException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Updating product quantity: id={}, new quantity={}", productId, quantity);
         if (remoteEnabled && remoteUrl != null && !remoteUrl.isBlank()) {
             String url = String.format("%s/fabric/assets/update/%s", remoteUrl, productId);
             Map<String, String> payload = new HashMap<>();
@@ -178,52 +314,74 @@ public class FabricService {
             try {
                 ResponseEntity<String> resp = restTemplate.exchange(url, HttpMethod.PUT, entity, String.class);
                 String message = extractMessageFromBody(resp);
-                return message == null ? new byte[0] : message.getBytes();
+                return message == null ? new byte[0] : message.getBytes(StandardCharsets.UTF_8);
             } catch (HttpStatusCodeException he) {
                 String body = he.getResponseBodyAsString();
                 throw new FabricServiceException("Failed to update product: id=" + productId + ", remoteBody=" + body, he);
             } catch (Exception e) {
                 throw new FabricServiceException("Failed to update product: id=" + productId + ": " + e.getMessage(), e);
+            } finally {
+                readCache.invalidateProduct(productId);
             }
         }
 
         try {
-            byte[] result = contract.submitTransaction("AssetContract:updateProductQuantity", productId, quantity);
-            logger.info("Service: Product updated successfully: id={}", productId);
+            byte[] result = submitLocal(List.of(productId), "AssetContract:updateProductQuantity", productId, quantity);
+            logger.info(RequestLogSampler.REQUEST, "Service: Product updated successfully: id={}", productId);
             return result;
+        } catch (LoadShedException e) {
+            throw e;
         } catch (Exception e) {
             throw new FabricServiceException("Failed to update product: id=" + productId + ": " + e.getMessage(), e);
+        } finally {
+            readCache.invalidateProduct(productId);
         }
     }
 
     public byte[] deleteProduct(String productId) throws FabricServiceException {
-        logger.info("Service: Deleting product with id={}", productId);
+        return timedWrite("AssetContract:deleteProduct", "removeProduct", () -> doDeleteProduct(productId));
+    }
+
+    private byte[] doDeleteProduct(String productId) throws FabricServiceException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Deleting product with id={}", productId);
         if (remoteEnabled && remoteUrl != null && !remoteUrl.isBlank()) {
             String url = String.format("%s/fabric/assets/removeProduct/%s", remoteUrl, productId);
             try {
                 ResponseEntity<String> resp = restTemplate.exchange(url, HttpMethod.DELETE, null, String.class);
                 String message = extractMessageFromBody(resp);
-                return message == null ? new byte[0] : message.getBytes();
+                return message == null ? new byte[0] : message.getBytes(StandardCharsets.UTF_8);
             } catch (HttpStatusCodeException he) {
                 String body = he.getResponseBodyAsString();
                 throw new FabricServiceException("Failed to delete product: id=" + productId + ", remoteBody=" + body, he);
             } catch (Exception e) {
                 throw new FabricServiceException("Failed to delete product: id=" + productId + ": " + e.getMessage(), e);
+            } finally {
+                readCache.invalidateProduct(productId);
             }
         }
 
         try {
-            byte[] result = contract.submitTransaction("AssetContract:deleteProduct", productId);
-            logger.info("Service: Product deleted successfully: id={}", productId);
+            byte[] result = submitLocal(List.of(productId), "AssetContract:deleteProduct", productId);
+            logger.info(RequestLogSampler.REQUEST, "Service: Product deleted successfully: id={}", productId);
             return result;
+        } catch (LoadShedException e) {
+            throw e;
         } catch (Exception e) {
             throw new FabricServiceException("Failed to delete product: id=" + productId + ": " + e.getMessage(), e);
+        } finally {
+            readCache.invalidateProduct(productId);
         }
     }
 
     public byte[] createShipment(String shipmentId, String productId, String origin, String destination, String carrier,
                                  String quantity) throws FabricServiceException {
-        logger.info("Service: Creating shipment: id={}, productId={}, origin={}, destination={}, carrier={}, quantity{}",
+        return timedWrite("ShipmentContract:createShipment", "createShipment",
+                () -> doCreateShipment(shipmentId, productId, origin, destination, carrier, quantity));
+    }
+
+    private byte[] doCreateShipment(String shipmentId, String productId, String origin, String destination, String carrier,
+                                    String quantity) throws FabricServiceException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Creating shipment: id={}, productId={}, origin={}, destination={}, carrier={}, quantity{}",
                 shipmentId, productId, origin, destination, carrier, quantity);
         if (remoteEnabled && remoteUrl != null && !remoteUrl.isBlank()) {
             String url = remoteUrl + "/fabric/assets/createShipment";
@@ -241,27 +399,49 @@ public class FabricService {
             try {
                 ResponseEntity<String> resp = restTemplate.postForEntity(url, entity, String.class);
                 String message = extractMessageFromBody(resp);
-                return message == null ? new byte[0] : message.getBytes();
+                return message == null ? new byte[0] : message.getBytes(StandardCharsets.UTF_8);
             } catch (HttpStatusCodeException he) {
                 String body = he.getResponseBodyAsString();
                 throw new FabricServiceException("Failed to create shipment: id=" + shipmentId + ", remoteBody=" + body, he);
             } catch (Exception e) {
                 throw new FabricServiceException("Failed to create shipment: id=" + shipmentId + ": " + e.getMessage(), e);
+            } finally {
+                readCache.invalidateShipment(shipmentId);
+                readCache.invalidateProduct(productId);
             }
         }
 
         try {
-            byte[] result = contract.submitTransaction("ShipmentContract:createShipment", shipmentId, productId, origin, destination,
-                    carrier, quantity);
-            logger.info("Service: Shipment created successfully: id={}", shipmentId);
+            byte[] result = submitLocal(List.of(shipmentId, productId), "ShipmentContract:createShipment",
+                    shipmentId, productId, origin, destination, carrier, quantity);
+            logger.info(RequestLogSampler.REQUEST, "Service: Shipment created successfully: id={}", shipmentId);
             return result;
+        } catch (LoadShedException e) {
+            throw e;
         } catch (Exception e) {
             throw new FabricServiceException("Failed to create shipment: id=" + shipmentId + ": " + e.getMessage(), e);
+        } finally {
+            readCache.invalidateShipment(shipmentId);
+            readCache.invalidateProduct(productId);
         }
     }
 
     public byte[] getShipment(String shipmentId) throws FabricServiceException {
-        logger.info("Service: Reading shipment with id={}", shipmentId);
+        logger.info(RequestLogSampler.REQUEST, "Service: Reading shipment with id={}", shipmentId);
+        byte[] cached = readCache.getShipment(shipmentId);
+        if (cached != null) {
+            logger.debug("Service: Shipment served from cache: id={}", shipmentId);
+            return cached;
+        }
+        long version = readCache.version(shipmentId);
+        return shipmentReads.execute(flightKey(version, shipmentId), () -> {
+            byte[] result = timed(FN_GET_SHIPMENT, "queryShipment", () -> fetchShipment(shipmentId));
+            readCache.putShipment(shipmentId, result, version);
+            return result;
+        });
+    }
+
+    private byte[] fetchShipment(String shipmentId) throws FabricServiceException {
         if (remoteEnabled && remoteUrl != null && !remoteUrl.isBlank()) {
             String url = String.format("%s/fabric/assets/queryShipment/%s", remoteUrl, shipmentId);
             try {
@@ -274,9 +454,9 @@ public class FabricService {
                     shipment = resp.getBody();
                 }
                 if (shipment == null) {
-                    throw new FabricServiceException("Shipment not found");
+                    throw new FabricServiceException(ErrorCode.NOT_FOUND, "Shipment not found");
                 }
-                return shipment.toString().getBytes();
+                return shipment.toString().getBytes(StandardCharsets.UTF_8);
             } catch (HttpStatusCodeException he) {
                 String body = he.getResponseBodyAsString();
                 throw new FabricServiceException("Shipment not found: id=" + shipmentId + ", remoteBody=" + body, he);
@@ -286,8 +466,8 @@ public class FabricService {
         }
 
         try {
-            byte[] result = contract.evaluateTransaction("ShipmentContract:getShipment", shipmentId);
-            logger.info("Service: Shipment details fetched: id={}", shipmentId);
+            byte[] result = contracts.execute(c -> c.evaluateTransaction("ShipmentContract:getShipment", shipmentId));
+            logger.info(RequestLogSampler.REQUEST, "Service: Shipment details fetched: id={}", shipmentId);
             return result;
         } catch (Exception e) {
             throw new FabricServiceException("Failed to read shipment: id=" + shipmentId + ": " + e.getMessage(), e);
@@ -295,7 +475,11 @@ public class FabricService {
     }
 
     public byte[] updateShipmentStatus(String shipmentId, String status) throws FabricServiceException {
-        logger.info("Service: Updating shipment status: id={}, new status={}", shipmentId, status);
+        return timedWrite("ShipmentContract:updateShipmentStatus", "updateShipment", () -> doUpdateShipmentStatus(shipmentId, status));
+    }
+
+    private byte[] doUpdateShipmentStatus(String shipmentId, String status) throws FabricServiceException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Updating shipment status: id={}, new status={}", shipmentId, status);
         if (remoteEnabled && remoteUrl != null && !remoteUrl.isBlank()) {
             String url = String.format("%s/fabric/assets/updateShipment/%s", remoteUrl, shipmentId);
             Map<String, String> payload = new HashMap<>();
@@ -306,27 +490,37 @@ public class FabricService {
             try {
                 ResponseEntity<String> resp = restTemplate.exchange(url, HttpMethod.PUT, entity, String.class);
                 String message = extractMessageFromBody(resp);
-                return message == null ? new byte[0] : message.getBytes();
+                return message == null ? new byte[0] : message.getBytes(StandardCharsets.UTF_8);
             } catch (HttpStatusCodeException he) {
                 String body = he.getResponseBodyAsString();
                 throw new FabricServiceException("Failed to update shipment: id=" + shipmentId + ", remoteBody=" + body, he);
             } catch (Exception e) {
                 throw new FabricServiceException("Failed to update shipment: id=" + shipmentId + ": " + e.getMessage(), e);
+            } finally {
+                readCache.invalidateShipment(shipmentId);
             }
         }
 
         try {
-            byte[] result = contract.submitTransaction("ShipmentContract:updateShipmentStatus", shipmentId, status);
-            logger.info("Service: Shipment updated successfully: id={}", shipmentId);
+            byte[] result = submitLocal(List.of(shipmentId), "ShipmentContract:updateShipmentStatus", shipmentId, status);
+            logger.info(RequestLogSampler.REQUEST, "Service: Shipment updated successfully: id={}", shipmentId);
             return result;
+        } catch (LoadShedException e) {
+            throw e;
         } catch (Exception e) {
             throw new FabricServiceException("Failed to update shipment: id=" + shipmentId + ": " + e.getMessage(), e);
+        } finally {
+            readCache.invalidateShipment(shipmentId);
         }
     }
 
     // New method to place an order (calls chaincode 'placeOrder')
     public byte[] placeOrder(String productId, String quantity) throws FabricServiceException {
-        logger.info("Service: Placing order for productId={}, quantity={}", productId, quantity);
+        return timedWrite("ShipmentContract:placeOrder", "placeOrder", () -> doPlaceOrder(productId, quantity));
+    }
+
+    private byte[] doPlaceOrder(String productId, String quantity) throws FabricServiceException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Placing order for productId={}, quantity={}", productId, quantity);
         if (remoteEnabled && remoteUrl != null && !remoteUrl.isBlank()) {
             String url = remoteUrl + "/fabric/assets/placeOrder";
             Map<String, Object> payload = new HashMap<>();
@@ -339,34 +533,101 @@ public class FabricService {
             try {
                 ResponseEntity<String> resp = restTemplate.postForEntity(url, entity, String.class);
                 String message = extractMessageFromBody(resp);
-                return message == null ? new byte[0] : message.getBytes();
+                return message == null ? new byte[0] : message.getBytes(StandardCharsets.UTF_8);
             } catch (HttpStatusCodeException he) {
                 String body = he.getResponseBodyAsString();
                 throw new FabricServiceException("Failed to place order: productId=" + productId + ", remoteBody=" + body, he);
             } catch (Exception e) {
                 throw new FabricServiceException("Failed to place order: productId=" + productId + ": " + e.getMessage(), e);
+            } finally {
+                readCache.invalidateProduct(productId);
             }
         }
 
         try {
-            byte[] result = contract.submitTransaction("ShipmentContract:placeOrder", productId, quantity);
-            logger.info("Service: Order placed successfully for productId={}", productId);
+            byte[] result = submitLocal(List.of(productId), "ShipmentContract:placeOrder", productId, quantity);
+            logger.info(RequestLogSampler.REQUEST, "Service: Order placed successfully for productId={}", productId);
             return result;
+        } catch (LoadShedException e) {
+            throw e;
         } catch (Exception e) {
             throw new FabricServiceException("Failed to place order: productId=" + productId + ": " + e.getMessage(), e);
+        } finally {
+            readCache.invalidateProduct(productId);
         }
     }
 
     @SuppressWarnings("squid:S1166")
     public byte[] getAuditLogByProductId(String productId) throws ContractException {
-        logger.info("Service: Reading Log with product id={}", productId);
+        return auditLogReads.execute(flightKey(readCache.version(productId), productId),
+                () -> timed(FN_GET_AUDIT_LOG, "queryLogByProductId", () -> fetchAuditLog(productId)));
+    }
+
+    /**
+     * Opens one page of the audit log for streaming. Failures (not found, remote errors) surface here,
+     * before anything is written, so the caller can still choose the HTTP status; a remote error
+     * response is thrown as an HttpStatusCodeException with its status and body.
+     */
+    public AuditLogPage getAuditLogPage(String productId, int offset, int pageSize) throws ContractException {
+        return timed(FN_GET_AUDIT_LOG, "queryLogByProductId",
+                () -> openAuditLogPage(productId, offset, pageSize));
+    }
+
+    private AuditLogPage openAuditLogPage(String productId, int offset, int pageSize) throws ContractException {
+        if (remoteEnabled && remoteUrl != null && !remoteUrl.isBlank()) {
+            return openAuditLogPageRemote(productId, offset, pageSize);
+        }
+        byte[] log = fetchAuditLog(productId);
+        return AuditLogPages.fromLedger(productId, log, offset, pageSize);
+    }
+
+    // Asks the remote instance for the same page and keeps its response open so the body can be piped through
+    private AuditLogPage openAuditLogPageRemote(String productId, int offset, int pageSize) throws ContractException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Reading remote Log page with product id={}, cursor={}, pageSize={}", productId, offset, pageSize);
+        URI uri = UriComponentsBuilder.fromUriString(remoteUrl)
+                .path("/fabric/assets/queryLogByProductId/{productId}")
+                .queryParam("cursor", offset)
+                .queryParam("pageSize", pageSize)
+                .buildAndExpand(productId)
+                .encode()
+                .toUri();
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = restTemplate.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+            response = request.execute();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                HttpStatusCodeException error = remoteError(response);
+                response.close();
+                throw error;
+            }
+            return AuditLogPages.fromRemote(response);
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new ContractException(String.format("Failed to read log with product id: %s", productId) + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Keeps the remote status and error body, so the caller maps a 503 or 500 as such and not as not found
+    private static HttpStatusCodeException remoteError(ClientHttpResponse response) throws IOException {
+        HttpStatusCode status = response.getStatusCode();
+        byte[] body = response.getBody().readAllBytes();
+        return status.is4xxClientError()
+                ? HttpClientErrorException.create(status, response.getStatusText(), response.getHeaders(), body, StandardCharsets.UTF_8)
+                : HttpServerErrorException.create(status, response.getStatusText(), response.getHeaders(), body, StandardCharsets.UTF_8);
+    }
+
+    private byte[] fetchAuditLog(String productId) throws ContractException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Reading Log with product id={}", productId);
         if (remoteEnabled && remoteUrl != null && !remoteUrl.isBlank()) {
             return fetchAuditLogRemote(productId);
         }
 
         try {
-            byte[] result = contract.evaluateTransaction("AssetContract:getAuditLogsByProductId", productId);
-            logger.info("Service: Log details fetched for product id={}", productId);
+            byte[] result = contracts.execute(c -> c.evaluateTransaction(FN_GET_AUDIT_LOG, productId));
+            logger.info(RequestLogSampler.REQUEST, "Service: Log details fetched for product id={}", productId);
             return result;
         } catch (ContractException e) {
             throw e;
@@ -375,4 +636,110 @@ public class FabricService {
         }
     }
 
+    // ========================= ASYNC SUBMIT =========================
+
+    // Async submits need a local contract and a block listener to report the commit outcome
+    public boolean isAsyncSubmitSupported() {
+        return !(remoteEnabled && remoteUrl != null && !remoteUrl.isBlank()) && txTracker.isActive();
+    }
+
+    // Endorses and sends the transaction to the orderer without waiting for commit; returns the tx id
+    private String submitAsync(String function, String... args) throws FabricServiceException {
+        return timed(function, "async", () -> sendAsync(function, args));
+    }
+
+    private String sendAsync(String function, String... args) throws FabricServiceException {
+        if (!isAsyncSubmitSupported()) {
+            throw new FabricServiceException("Async submit is not available in this mode");
+        }
+        return contracts.execute(contract -> {
+            Transaction transaction = contract.createTransaction(function)
+                    .setCommitHandler(DefaultCommitHandlers.NONE);
+            String txId = transaction.getTransactionId();
+            txTracker.track(txId, function);
+            try {
+                transaction.submit(args);
+                logger.info(RequestLogSampler.REQUEST, "Service: Transaction sent to orderer: function={}, txId={}", function, txId);
+                return txId;
+            } catch (Exception e) {
+                txTracker.fail(txId, e.getMessage());
+                throw new FabricServiceException("Failed to submit " + function + ": " + e.getMessage(), e);
+            }
+        });
+    }
+
+    public String createProductAsync(String productId, String name, String category, String quantity) throws FabricServiceException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Creating product async with id={}", productId);
+        return submitAsync("AssetContract:createProduct", productId, name, category, quantity);
+    }
+
+    public String updateProductQuantityAsync(String productId, String quantity) throws FabricServiceException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Updating product quantity async: id={}, new quantity={}", productId, quantity);
+        try {
+            return submitAsync("AssetContract:updateProductQuantity", productId, quantity);
+        } finally {
+            readCache.invalidateProduct(productId);
+        }
+    }
+
+    public String deleteProductAsync(String productId) throws FabricServiceException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Deleting product async with id={}", productId);
+        try {
+            return submitAsync("AssetContract:deleteProduct", productId);
+        } finally {
+            readCache.invalidateProduct(productId);
+        }
+    }
+
+    public String createShipmentAsync(String shipmentId, String productId, String origin, String destination, String carrier,
+                                      String quantity) throws FabricServiceException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Creating shipment async: id={}, productId={}", shipmentId, productId);
+        try {
+            return submitAsync("ShipmentContract:createShipment", shipmentId, productId, origin, destination, carrier, quantity);
+        } finally {
+            readCache.invalidateShipment(shipmentId);
+            readCache.invalidateProduct(productId);
+        }
+    }
+
+    public String updateShipmentStatusAsync(String shipmentId, String status) throws FabricServiceException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Updating shipment status async: id={}, new status={}", shipmentId, status);
+        try {
+            return submitAsync("ShipmentContract:updateShipmentStatus", shipmentId, status);
+        } finally {
+            readCache.invalidateShipment(shipmentId);
+        }
+    }
+
+    public String placeOrderAsync(String productId, String quantity) throws FabricServiceException {
+        logger.info(RequestLogSampler.REQUEST, "Service: Placing order async for productId={}, quantity={}", productId, quantity);
+        try {
+            return submitAsync("ShipmentContract:placeOrder", productId, quantity);
+        } finally {
+            readCache.invalidateProduct(productId);
+        }
+    }
+
+    // Reads served by another caller's in-flight call, per read kind
+    public Map<String, Object> coalescingStats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("product", productReads.coalescedCount());
+        out.put("shipment", shipmentReads.coalescedCount());
+        out.put("auditLog", auditLogReads.coalescedCount());
+        return out;
+    }
+
+    // Members of the gateway pool with their load and health
+    public Map<String, Object> gatewayPoolStats() {
+        return contracts.stats();
+    }
+
+    // Per-key write ordering and MVCC conflict retry counts
+    public Map<String, Object> writeStats() {
+        return writeSequencer.stats();
+    }
+
+    public TransactionTracker.Status getTransactionStatus(String txId) {
+        return txTracker.get(txId);
+    }
 }
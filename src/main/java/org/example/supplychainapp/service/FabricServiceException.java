@@ -1,15 +1,31 @@
 package org.example.supplychainapp.service;
 
 /**
- * Checked exception representing errors from FabricService operations.
+ * Checked exception representing errors from FabricService operations, with the {@link ErrorCode}
+ * that decides the HTTP answer. Expected outcomes (not found, already exists, insufficient stock)
+ * skip filling in the stack trace, which is most of the cost of throwing them.
  */
 public class FabricServiceException extends Exception {
+    private final ErrorCode code;
+
     public FabricServiceException(String message) {
-        super(message);
+        this(ErrorCode.FAILED, message, null);
     }
 
     public FabricServiceException(String message, Throwable cause) {
-        super(message, cause);
+        this(ErrorCode.classify(cause), message, cause);
+    }
+
+    public FabricServiceException(ErrorCode code, String message) {
+        this(code, message, null);
     }
-}
 
+    public FabricServiceException(ErrorCode code, String message, Throwable cause) {
+        super(message, cause, true, !code.isExpected());
+        this.code = code;
+    }
+
+    public ErrorCode getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.supplychainapp.service;
+
+import org.hyperledger.fabric.gateway.Contract;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Spreads ledger calls over several gateway connections, each with its own signing identity or
+ * connection. Every call runs on the healthy member with the fewest calls in flight, ties broken
+ * round-robin. With a per-member in-flight limit, callers beyond the pool's capacity wait in a
+ * fair (FIFO) queue. A member whose calls fail at the connection level several times in a row is
+ * left out for a cooldown period; chaincode errors do not count against it.
+ * <p>
+ * A pool may start empty and get its members once the ledger connection is up; calls made
+ * before that fail with IllegalStateException.
+ */
+public class GatewayPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(GatewayPool.class);
+
+    static final String NOT_CONNECTED = "Ledger connection is not established yet";
+
+    @FunctionalInterface
+    public interface ContractCall<T, E extends Exception> {
+        T call(Contract contract) throws E;
+    }
+
+    /** One pool member; owner (usually its Gateway) is closed with the pool and may be null. */
+    public record Member(String name, Contract contract, AutoCloseable owner) {
+    }
+
+    public record Settings(int maxInFlightPerMember, int ejectAfterFailures, long ejectMillis) {
+    }
+
+    private static final class Slot {
+        final Member member;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicInteger consecutiveFailures = new AtomicInteger();
+        volatile long ejectedUntil;
+        volatile boolean ejected;
+
+        Slot(Member member) {
+            this.member = member;
+        }
+
+        boolean isEjected(long now) {
+            return ejected && now - ejectedUntil < 0;
+        }
+    }
+
+    private final Settings settings;
+    private volatile List<Slot> slots = List.of();
+    private volatile Semaphore permits;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong queued = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public GatewayPool(Settings settings) {
+        this.settings = settings;
+    }
+
+    public GatewayPool(List<Member> members, Settings settings) {
+        this(settings);
+        attach(members);
+    }
+
+    // Called once, when the connections are established
+    public void attach(List<Member> members) {
+        lock.lock();
+        try {
+            if (members.isEmpty()) {
+                throw new IllegalArgumentException("Gateway pool needs at least one member");
+            }
+            if (!slots.isEmpty()) {
+                throw new IllegalStateException("Gateway pool already has members");
+            }
+            this.permits = settings.maxInFlightPerMember() > 0
+                    ? new Semaphore(settings.maxInFlightPerMember() * members.size(), true)
+                    : null;
+            this.slots = members.stream().map(Slot::new).toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A pool of one, for the simulated ledger and tests
+    public static GatewayPool of(Contract contract) {
+        return new GatewayPool(List.of(new Member("default", contract, null)), new Settings(0, 0, 0));
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public boolean isReady() {
+        return !slots.isEmpty();
+    }
+
+    // Members not currently ejected; 0 means every call is served by a member known to be failing
+    public int healthyCount() {
+        long now = System.nanoTime();
+        int healthy = 0;
+        for (Slot s : slots) {
+            healthy += s.isEjected(now) ? 0 : 1;
+        }
+        return healthy;
+    }
+
+    public <T, E extends Exception> T execute(ContractCall<T, E> call) throws E {
+        List<Slot> current = slots;
+        if (current.isEmpty()) {
+            throw new IllegalStateException(NOT_CONNECTED);
+        }
+        Semaphore permits = this.permits;
+        if (permits != null && !permits.tryAcquire()) {
+            queued.incrementAndGet();
+            permits.acquireUninterruptibly();
+        }
+        Slot slot = pick(current);
+        slot.inFlight.incrementAndGet();
+        slot.calls.incrementAndGet();
+        try {
+            T result = call.call(slot.member.contract());
+            onSuccess(slot);
+            return result;
+        } catch (Exception e) {
+            if (isConnectionFailure(e)) {
+                onFailure(slot, e);
+            } else {
+                onSuccess(slot);
+            }
+            throw e;
+        } finally {
+            slot.inFlight.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    private Slot pick(List<Slot> slots) {
+        long now = System.nanoTime();
+        int n = slots.size();
+        int start = Math.floorMod(next.getAndIncrement(), n);
+        Slot best = null;
+        Slot fallback = null;
+        for (int i = 0; i < n; i++) {
+            Slot s = slots.get((start + i) % n);
+            if (s.isEjected(now)) {
+                if (fallback == null || s.inFlight.get() < fallback.inFlight.get()) {
+                    fallback = s;
+                }
+            } else if (best == null || s.inFlight.get() < best.inFlight.get()) {
+                best = s;
+            }
+        }
+        // Every member ejected: still serve the call from the least loaded one
+        return best != null ? best : fallback;
+    }
+
+    private void onSuccess(Slot slot) {
+        slot.consecutiveFailures.set(0);
+        if (slot.ejected) {
+            slot.ejected = false;
+            logger.info("Gateway pool member {} is healthy again", slot.member.name());
+        }
+    }
+
+    private void onFailure(Slot slot, Exception e) {
+        slot.failures.incrementAndGet();
+        int failures = slot.consecutiveFailures.incrementAndGet();
+        if (settings.ejectAfterFailures() > 0 && failures >= settings.ejectAfterFailures() && slots.size() > 1) {
+            slot.ejectedUntil = System.nanoTime() + settings.ejectMillis() * 1_000_000L;
+            if (!slot.ejected) {
+                slot.ejected = true;
+                logger.warn("Gateway pool member {} ejected for {}ms after {} connection failures: {}",
+                        slot.member.name(), settings.ejectMillis(), failures, e.getMessage());
+            }
+        }
+    }
+
+    // Transport problems (peer unreachable, timeouts) as opposed to chaincode or validation errors
+    static boolean isConnectionFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof TimeoutException || t instanceof IOException) {
+                return true;
+            }
+            String msg = t.getMessage();
+            if (msg != null && (msg.contains("UNAVAILABLE") || msg.contains("DEADLINE_EXCEEDED")
+                    || msg.contains("Connection refused"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Map<String, Object> stats() {
+        long now = System.nanoTime();
+        Map<String, Object> members = new LinkedHashMap<>();
+        int healthy = 0;
+        for (Slot s : slots) {
+            boolean up = !s.isEjected(now);
+            healthy += up ? 1 : 0;
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("healthy", up);
+            m.put("inFlight", s.inFlight.get());
+            m.put("calls", s.calls.get());
+            m.put("failures", s.failures.get());
+            m.put("consecutiveFailures", s.consecutiveFailures.get());
+            members.put(s.member.name(), m);
+        }
+        Semaphore permits = this.permits;
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("ready", isReady());
+        out.put("size", slots.size());
+        out.put("healthy", healthy);
+        out.put("maxInFlightPerMember", settings.maxInFlightPerMember());
+        out.put("waiting", permits == null ? 0 : permits.getQueueLength());
+        out.put("queued", queued.get());
+        out.put("members", members);
+        return out;
+    }
+
+    @Override
+    public void close() {
+        for (Slot s : slots) {
+            AutoCloseable owner = s.member.owner();
+            if (owner == null) {
+                continue;
+            }
+            try {
+                owner.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close gateway pool member {}: {}", s.member.name(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.supplychainapp.service;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.protos.ledger.rwset.kvrwset.KvRwset;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.BlockInfo;
+import org.hyperledger.fabric.sdk.TxReadWriteSetInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Listens for committed blocks on the channel and evicts cached reads for every key a valid
+ * transaction wrote. Only active in local mode, where a {@link LedgerConnection} exists; the
+ * listener is added once it has connected.
+ */
+@Component
+public class LedgerCacheInvalidator {
+    private static final Logger logger = LoggerFactory.getLogger(LedgerCacheInvalidator.class);
+
+    private final ObjectProvider<LedgerConnection> connectionProvider;
+    private final LedgerReadCache readCache;
+    private volatile Network network;
+    private volatile Consumer<BlockEvent> blockListener;
+
+    public LedgerCacheInvalidator(ObjectProvider<LedgerConnection> connectionProvider, LedgerReadCache readCache) {
+        this.connectionProvider = connectionProvider;
+        this.readCache = readCache;
+    }
+
+    @PostConstruct
+    void register() {
+        if (!readCache.isEnabled()) {
+            return;
+        }
+        LedgerConnection connection = connectionProvider.getIfAvailable();
+        if (connection == null) {
+            logger.info("No Fabric network available; cache will rely on TTL and local write invalidation");
+            return;
+        }
+        connection.whenConnected(c -> {
+            network = c.network();
+            blockListener = network.addBlockListener(this::onBlock);
+            logger.info("Registered block listener for read cache invalidation");
+        });
+    }
+
+    @PreDestroy
+    void unregister() {
+        if (network != null && blockListener != null) {
+            network.removeBlockListener(blockListener);
+        }
+    }
+
+    void onBlock(BlockEvent blockEvent) {
+        for (BlockEvent.TransactionEvent tx : blockEvent.getTransactionEvents()) {
+            if (!tx.isValid()) {
+                continue;
+            }
+            for (BlockInfo.TransactionEnvelopeInfo.TransactionActionInfo action : tx.getTransactionActionInfos()) {
+                invalidateWrites(action.getTxReadWriteSet());
+            }
+        }
+    }
+
+    private void invalidateWrites(TxReadWriteSetInfo rwSet) {
+        if (rwSet == null) {
+            return;
+        }
+        for (TxReadWriteSetInfo.NsRwsetInfo ns : rwSet.getNsRwsetInfos()) {
+            try {
+                for (KvRwset.KVWrite write : ns.getRwset().getWritesList()) {
+                    readCache.invalidateLedgerKey(write.getKey());
+                }
+            } catch (InvalidProtocolBufferException e) {
+                // Can't tell which keys changed: fall back to dropping everything
+                logger.warn("Unreadable read/write set in namespace={}, clearing read cache: {}", ns.getNamespace(), e.getMessage());
+                readCache.invalidateAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.supplychainapp.service;
+
+import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.Network;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Connects to the Fabric network in the background once the application context has started, so
+ * startup never waits on (or fails because of) the peers. The connector is retried with
+ * exponential backoff until it succeeds; components that need the network register with
+ * {@link #whenConnected} and are called back on the connecting thread once it is up, or
+ * immediately if it already is.
+ */
+public class LedgerConnection implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(LedgerConnection.class);
+
+    /** The primary gateway's network (for block listeners) and contract. */
+    public record Connected(Network network, Contract contract) {
+    }
+
+    @FunctionalInterface
+    public interface Connector {
+        Connected connect() throws Exception;
+    }
+
+    private final Connector connector;
+    private final long retryMinMillis;
+    private final long retryMaxMillis;
+    private final List<Consumer<Connected>> listeners = new ArrayList<>();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Connected connected;
+    private volatile String lastError;
+    private volatile long connectedAfterMillis = -1;
+    private volatile boolean running;
+    private Thread thread;
+
+    public LedgerConnection(Connector connector, long retryMinMillis, long retryMaxMillis) {
+        this.connector = connector;
+        this.retryMinMillis = Math.max(1, retryMinMillis);
+        this.retryMaxMillis = Math.max(this.retryMinMillis, retryMaxMillis);
+    }
+
+    public void whenConnected(Consumer<Connected> listener) {
+        Connected current;
+        lock.lock();
+        try {
+            current = connected;
+            if (current == null) {
+                listeners.add(listener);
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        notify(listener, current);
+    }
+
+    public boolean isConnected() {
+        return connected != null;
+    }
+
+    @Override
+    public void start() {
+        lock.lock();
+        try {
+            if (running) {
+                return;
+            }
+            running = true;
+            thread = new Thread(this::connectLoop, "ledger-connect");
+            thread.setDaemon(true);
+            thread.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void stop() {
+        lock.lock();
+        try {
+            running = false;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void connectLoop() {
+        long delay = retryMinMillis;
+        while (running && connected == null) {
+            int attempt = attempts.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                Connected c = connector.connect();
+                connectedAfterMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+                logger.info("Ledger connected and warmed up in {} ms (attempt {}, {} ms after JVM start)",
+                        (System.nanoTime() - start) / 1_000_000, attempt, connectedAfterMillis);
+                onConnected(c);
+                return;
+            } catch (Exception e) {
+                lastError = e.getMessage();
+                logger.warn("Ledger connection attempt {} failed, retrying in {} ms: {}", attempt, delay, e.getMessage());
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            delay = Math.min(retryMaxMillis, delay * 2);
+        }
+    }
+
+    private void onConnected(Connected c) {
+        List<Consumer<Connected>> pending;
+        lastError = null;
+        lock.lock();
+        try {
+            connected = c;
+            pending = new ArrayList<>(listeners);
+            listeners.clear();
+        } finally {
+            lock.unlock();
+        }
+        for (Consumer<Connected> listener : pending) {
+            notify(listener, c);
+        }
+    }
+
+    private static void notify(Consumer<Connected> listener, Connected c) {
+        try {
+            listener.accept(c);
+        } catch (RuntimeException e) {
+            logger.warn("Ledger connection listener failed: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("connected", isConnected());
+        out.put("attempts", attempts.get());
+        if (connectedAfterMillis >= 0) {
+            out.put("connectedAfterMillis", connectedAfterMillis);
+        }
+        if (lastError != null) {
+            out.put("lastError", lastError);
+        }
+        return out;
+    }
+}
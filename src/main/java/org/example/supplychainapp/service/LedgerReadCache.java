@@ -0,0 +1,161 @@
+package org.example.supplychainapp.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, TTL-evicted read-through cache for product and shipment lookups.
+ * Entries are invalidated on local writes and on ledger events. Each id has an invalidation
+ * version (striped, so memory stays fixed) that keeps a read which raced with a write to the
+ * same id from putting a stale value back into the cache; writes to other ids do not disturb it.
+ */
+@Component
+public class LedgerReadCache {
+
+    private final boolean enabled;
+    private final Cache<String, byte[]> products;
+    private final Cache<String, byte[]> shipments;
+    // Power of two; ids sharing a stripe only cost each other a discarded fill now and then
+    private static final int VERSION_STRIPES = 4096;
+
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    // Bumped by invalidateAll, which counts against every id
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public LedgerReadCache(@Value("${supplychain.cache.enabled:true}") boolean enabled,
+                           @Value("${supplychain.cache.maximum-size:10000}") long maximumSize,
+                           @Value("${supplychain.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.products = newCache(maximumSize, ttlSeconds);
+        this.shipments = newCache(maximumSize, ttlSeconds);
+    }
+
+    private static Cache<String, byte[]> newCache(long maximumSize, long ttlSeconds) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Capture before fetching id from the ledger and pass to put* so racing invalidations win
+    public long version(String id) {
+        // Both parts only grow, so any invalidation of id changes the sum
+        return generation.get() + versions.get(stripe(id));
+    }
+
+    private static int stripe(String id) {
+        int h = id.hashCode();
+        return (h ^ (h >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    public byte[] getProduct(String productId) {
+        return enabled ? products.getIfPresent(productId) : null;
+    }
+
+    public byte[] getShipment(String shipmentId) {
+        return enabled ? shipments.getIfPresent(shipmentId) : null;
+    }
+
+    public void putProduct(String productId, byte[] value, long observedVersion) {
+        put(products, productId, value, observedVersion);
+    }
+
+    public void putShipment(String shipmentId, byte[] value, long observedVersion) {
+        put(shipments, shipmentId, value, observedVersion);
+    }
+
+    private void put(Cache<String, byte[]> cache, String key, byte[] value, long observedVersion) {
+        if (!enabled || key == null || value == null) {
+            return;
+        }
+        cache.put(key, value);
+        // The id was invalidated while we were fetching: drop what we just stored
+        if (version(key) != observedVersion) {
+            cache.invalidate(key);
+        }
+    }
+
+    public void invalidateProduct(String productId) {
+        invalidate(products, productId);
+    }
+
+    public void invalidateShipment(String shipmentId) {
+        invalidate(shipments, shipmentId);
+    }
+
+    private void invalidate(Cache<String, byte[]> cache, String key) {
+        if (key == null) {
+            return;
+        }
+        versions.incrementAndGet(stripe(key));
+        invalidations.incrementAndGet();
+        cache.invalidate(key);
+    }
+
+    /**
+     * Invalidates entries for a raw ledger key written by a committed transaction. Composite keys
+     * are split on the U+0000 separator so that ids embedded in them are invalidated as well.
+     */
+    public void invalidateLedgerKey(String ledgerKey) {
+        if (ledgerKey == null || ledgerKey.isEmpty()) {
+            return;
+        }
+        for (String part : ledgerKey.split("\u0000")) {
+            if (!part.isEmpty()) {
+                invalidateProduct(part);
+                invalidateShipment(part);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        invalidations.incrementAndGet();
+        products.invalidateAll();
+        shipments.invalidateAll();
+    }
+
+    public Cache<String, byte[]> productCache() {
+        return products;
+    }
+
+    public Cache<String, byte[]> shipmentCache() {
+        return shipments;
+    }
+
+    // Snapshot of hit/miss/eviction counters, used by the cache stats endpoint
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("product", describe(products));
+        out.put("shipment", describe(shipments));
+        out.put("invalidations", invalidations.get());
+        return out;
+    }
+
+    private static Map<String, Object> describe(Cache<String, byte[]> cache) {
+        CacheStats s = cache.stats();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("size", cache.size());
+        out.put("hits", s.hitCount());
+        out.put("misses", s.missCount());
+        out.put("evictions", s.evictionCount());
+        out.put("hitRate", s.hitRate());
+        return out;
+    }
+}
@@ -0,0 +1,495 @@
+package org.example.supplychainapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.InvalidProtocolBufferException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.protos.ledger.rwset.kvrwset.KvRwset;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.BlockInfo;
+import org.hyperledger.fabric.sdk.TxReadWriteSetInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Off-chain materialized view of products and shipments, indexed by category, quantity and
+ * shipment status/carrier so those lookups are answered from memory instead of key by key on the
+ * ledger. It is loaded with a range query per asset type when the application starts and then kept
+ * current from the chaincode's write sets in valid transactions of committed blocks; composite index
+ * keys are not assets and are skipped. A failed load is retried with exponential backoff; until one
+ * succeeds the view reports itself as not loaded. Every answer carries the ledger height (last
+ * applied block + 1) it reflects. Change listeners are told about every product and shipment a
+ * committed block created, updated or deleted.
+ * <p>
+ * Only active in local mode, where a {@link LedgerConnection} exists; listening and loading start
+ * once it has connected.
+ */
+@Component
+public class LedgerView {
+    private static final Logger logger = LoggerFactory.getLogger(LedgerView.class);
+
+    public record ProductEntry(String productId, String productName, String category, int quantity) {
+    }
+
+    public record ShipmentEntry(String shipmentId, String productId, String origin, String destination,
+                                String carrier, Integer quantity, String status) {
+    }
+
+    // A query answer and the ledger height it was read at
+    public record Snapshot<T>(List<T> items, long ledgerHeight) {
+    }
+
+    public static final String TYPE_PRODUCT = "product";
+    public static final String TYPE_SHIPMENT = "shipment";
+    public static final String ACTION_UPDATED = "updated";
+    public static final String ACTION_DELETED = "deleted";
+
+    /**
+     * One asset changed by a committed block. value is the new {@link ProductEntry} or
+     * {@link ShipmentEntry}, or the last known one for deletions; productId is set for both types.
+     */
+    public record Change(String type, String action, String id, String productId, Object value, long blockNumber) {
+    }
+
+    private final ObjectProvider<LedgerConnection> connectionProvider;
+    private final boolean enabled;
+    private final String chaincodeName;
+    private final String productsFunction;
+    private final String shipmentsFunction;
+    private final long loadRetryMinMillis;
+    private final long loadRetryMaxMillis;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, ProductEntry> products = new HashMap<>();
+    private final Map<String, Set<String>> productsByCategory = new HashMap<>();
+    private final TreeMap<Integer, Set<String>> productsByQuantity = new TreeMap<>();
+    private final Map<String, ShipmentEntry> shipments = new HashMap<>();
+    private final Map<String, Set<String>> shipmentsByStatus = new HashMap<>();
+    private final Map<String, Set<String>> shipmentsByCarrier = new HashMap<>();
+    // Ids changed by block events before the initial load finished; the load must not overwrite them
+    private final Set<String> touchedBeforeLoad = new HashSet<>();
+    private boolean loaded;
+    private long ledgerHeight;
+
+    private volatile boolean active;
+    private volatile boolean stopped;
+    private volatile int loadAttempts;
+    private volatile String lastLoadError;
+    private volatile Network network;
+    private volatile Contract contract;
+    private volatile Consumer<BlockEvent> blockListener;
+    private final List<Consumer<List<Change>>> changeListeners = new CopyOnWriteArrayList<>();
+
+    public LedgerView(ObjectProvider<LedgerConnection> connectionProvider,
+                      @Value("${supplychain.view.enabled:true}") boolean enabled,
+                      @Value("${fabric.contract.name:SupplyChainContract}") String chaincodeName,
+                      @Value("${supplychain.view.products-function:AssetContract:getAllProducts}") String productsFunction,
+                      @Value("${supplychain.view.shipments-function:ShipmentContract:getAllShipments}") String shipmentsFunction,
+                      @Value("${supplychain.view.load-retry-min-ms:1000}") long loadRetryMinMillis,
+                      @Value("${supplychain.view.load-retry-max-ms:30000}") long loadRetryMaxMillis) {
+        this.connectionProvider = connectionProvider;
+        this.enabled = enabled;
+        this.chaincodeName = chaincodeName;
+        this.productsFunction = productsFunction;
+        this.shipmentsFunction = shipmentsFunction;
+        this.loadRetryMinMillis = Math.max(1, loadRetryMinMillis);
+        this.loadRetryMaxMillis = Math.max(this.loadRetryMinMillis, loadRetryMaxMillis);
+    }
+
+    @PostConstruct
+    void register() {
+        if (!enabled) {
+            return;
+        }
+        LedgerConnection connection = connectionProvider.getIfAvailable();
+        if (connection == null) {
+            logger.info("No Fabric network available; materialized view disabled");
+            return;
+        }
+        active = true;
+        connection.whenConnected(c -> {
+            network = c.network();
+            contract = c.contract();
+            // Listen first so nothing committed during the initial load is missed
+            blockListener = network.addBlockListener(this::onBlock);
+            Thread loader = new Thread(this::loadLoop, "ledger-view-load");
+            loader.setDaemon(true);
+            loader.start();
+        });
+    }
+
+    @PreDestroy
+    void unregister() {
+        stopped = true;
+        if (network != null && blockListener != null) {
+            network.removeBlockListener(blockListener);
+        }
+    }
+
+    // Called on the block event thread after each block is applied, outside the view lock; must not block
+    public void addChangeListener(Consumer<List<Change>> listener) {
+        changeListeners.add(listener);
+    }
+
+    // True in local mode with the view enabled, also while the ledger connection is still coming up
+    public boolean isActive() {
+        return active;
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========================= INITIAL LOAD =========================
+
+    private void loadLoop() {
+        long delay = loadRetryMinMillis;
+        while (!stopped && !load()) {
+            logger.warn("Materialized view load attempt {} failed, retrying in {} ms: {}",
+                    loadAttempts, delay, lastLoadError);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            delay = Math.min(loadRetryMaxMillis, delay * 2);
+        }
+    }
+
+    // One attempt at the initial load; block events keep applying meanwhile and win over loaded rows
+    boolean load() {
+        loadAttempts++;
+        long start = System.nanoTime();
+        try {
+            long height = network.getChannel().queryBlockchainInfo().getHeight();
+            JsonNode productRows = objectMapper.readTree(contract.evaluateTransaction(productsFunction));
+            JsonNode shipmentRows = objectMapper.readTree(contract.evaluateTransaction(shipmentsFunction));
+            int productCount;
+            int shipmentCount;
+            lock.writeLock().lock();
+            try {
+                for (JsonNode row : productRows) {
+                    ProductEntry product = toProduct(record(row));
+                    if (product != null && !touchedBeforeLoad.contains(product.productId())) {
+                        putProduct(product);
+                    }
+                }
+                for (JsonNode row : shipmentRows) {
+                    ShipmentEntry shipment = toShipment(record(row));
+                    if (shipment != null && !touchedBeforeLoad.contains(shipment.shipmentId())) {
+                        putShipment(shipment);
+                    }
+                }
+                touchedBeforeLoad.clear();
+                ledgerHeight = Math.max(ledgerHeight, height);
+                loaded = true;
+                lastLoadError = null;
+                productCount = products.size();
+                shipmentCount = shipments.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Materialized view loaded: products={}, shipments={}, height={} in {} ms",
+                    productCount, shipmentCount, height, (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (Exception e) {
+            lastLoadError = e.getMessage();
+            return false;
+        }
+    }
+
+    // Range queries may return bare records or {"Key": .., "Record": ..} pairs
+    private static JsonNode record(JsonNode row) {
+        return row.has("Record") ? row.get("Record") : row;
+    }
+
+    // ========================= BLOCK EVENTS =========================
+
+    void onBlock(BlockEvent blockEvent) {
+        long blockNumber = blockEvent.getBlockNumber();
+        List<Change> changes = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (BlockEvent.TransactionEvent tx : blockEvent.getTransactionEvents()) {
+                if (!tx.isValid()) {
+                    continue;
+                }
+                for (BlockInfo.TransactionEnvelopeInfo.TransactionActionInfo action : tx.getTransactionActionInfos()) {
+                    applyWrites(action.getTxReadWriteSet(), blockNumber, changes);
+                }
+            }
+            ledgerHeight = Math.max(ledgerHeight, blockNumber + 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!changes.isEmpty()) {
+            for (Consumer<List<Change>> listener : changeListeners) {
+                try {
+                    listener.accept(changes);
+                } catch (RuntimeException e) {
+                    logger.warn("Ledger change listener failed for block={}: {}", blockNumber, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void applyWrites(TxReadWriteSetInfo rwSet, long blockNumber, List<Change> changes) {
+        if (rwSet == null) {
+            return;
+        }
+        for (TxReadWriteSetInfo.NsRwsetInfo ns : rwSet.getNsRwsetInfos()) {
+            // Only our chaincode's state; lifecycle and other chaincodes may use the same key names
+            if (!chaincodeName.isEmpty() && !chaincodeName.equals(ns.getNamespace())) {
+                continue;
+            }
+            try {
+                for (KvRwset.KVWrite write : ns.getRwset().getWritesList()) {
+                    applyWrite(write, blockNumber, changes);
+                }
+            } catch (InvalidProtocolBufferException e) {
+                logger.warn("Unreadable read/write set in namespace={}, view may be stale: {}",
+                        ns.getNamespace(), e.getMessage());
+            }
+        }
+    }
+
+    private void applyWrite(KvRwset.KVWrite write, long blockNumber, List<Change> changes) {
+        String key = write.getKey();
+        // Composite keys (index entries) start with U+0000; products and shipments live under plain ids
+        if (key.isEmpty() || key.charAt(0) == '\u0000') {
+            return;
+        }
+        if (write.getIsDelete()) {
+            ProductEntry product = removeProduct(key);
+            if (product != null) {
+                changes.add(new Change(TYPE_PRODUCT, ACTION_DELETED, key, key, product, blockNumber));
+            }
+            ShipmentEntry shipment = removeShipment(key);
+            if (shipment != null) {
+                changes.add(new Change(TYPE_SHIPMENT, ACTION_DELETED, key, shipment.productId(), shipment,
+                        blockNumber));
+            }
+            markTouched(key);
+            return;
+        }
+        JsonNode value;
+        try {
+            value = objectMapper.readTree(write.getValue().toByteArray());
+        } catch (IOException e) {
+            return; // not JSON state, e.g. a counter or a marker key
+        }
+        ShipmentEntry shipment = toShipment(value);
+        if (shipment != null) {
+            putShipment(shipment);
+            markTouched(shipment.shipmentId());
+            changes.add(new Change(TYPE_SHIPMENT, ACTION_UPDATED, shipment.shipmentId(), shipment.productId(),
+                    shipment, blockNumber));
+            return;
+        }
+        ProductEntry product = toProduct(value);
+        if (product != null) {
+            putProduct(product);
+            markTouched(product.productId());
+            changes.add(new Change(TYPE_PRODUCT, ACTION_UPDATED, product.productId(), product.productId(),
+                    product, blockNumber));
+        }
+    }
+
+    private void markTouched(String id) {
+        if (!loaded) {
+            touchedBeforeLoad.add(id);
+        }
+    }
+
+    // ========================= PARSING =========================
+
+    // Shipments are recognised by shipmentId; products by productId plus a quantity, excluding audit entries
+    private static ShipmentEntry toShipment(JsonNode node) {
+        if (node == null || !node.isObject() || !node.hasNonNull("shipmentId")) {
+            return null;
+        }
+        return new ShipmentEntry(node.get("shipmentId").asText(), text(node, "productId"), text(node, "origin"),
+                text(node, "destination"), text(node, "carrier"),
+                node.hasNonNull("quantity") ? node.get("quantity").asInt() : null, text(node, "status"));
+    }
+
+    private static ProductEntry toProduct(JsonNode node) {
+        if (node == null || !node.isObject() || !node.hasNonNull("productId") || !node.hasNonNull("quantity")
+                || node.has("action") || node.has("shipmentId")) {
+            return null;
+        }
+        return new ProductEntry(node.get("productId").asText(), text(node, "productName"), text(node, "category"),
+                node.get("quantity").asInt());
+    }
+
+    private static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    // ========================= INDEX MAINTENANCE (write lock held) =========================
+
+    private void putProduct(ProductEntry product) {
+        removeProduct(product.productId());
+        products.put(product.productId(), product);
+        index(productsByCategory, product.category(), product.productId());
+        productsByQuantity.computeIfAbsent(product.quantity(), q -> new HashSet<>()).add(product.productId());
+    }
+
+    private ProductEntry removeProduct(String productId) {
+        ProductEntry old = products.remove(productId);
+        if (old == null) {
+            return null;
+        }
+        unindex(productsByCategory, old.category(), productId);
+        Set<String> ids = productsByQuantity.get(old.quantity());
+        if (ids != null && ids.remove(productId) && ids.isEmpty()) {
+            productsByQuantity.remove(old.quantity());
+        }
+        return old;
+    }
+
+    private void putShipment(ShipmentEntry shipment) {
+        removeShipment(shipment.shipmentId());
+        shipments.put(shipment.shipmentId(), shipment);
+        index(shipmentsByStatus, shipment.status(), shipment.shipmentId());
+        index(shipmentsByCarrier, shipment.carrier(), shipment.shipmentId());
+    }
+
+    private ShipmentEntry removeShipment(String shipmentId) {
+        ShipmentEntry old = shipments.remove(shipmentId);
+        if (old == null) {
+            return null;
+        }
+        unindex(shipmentsByStatus, old.status(), shipmentId);
+        unindex(shipmentsByCarrier, old.carrier(), shipmentId);
+        return old;
+    }
+
+    private static void index(Map<String, Set<String>> index, String key, String id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static void unindex(Map<String, Set<String>> index, String key, String id) {
+        if (key == null) {
+            return;
+        }
+        Set<String> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    // ========================= QUERIES =========================
+
+    public Snapshot<ProductEntry> productsByCategory(String category) {
+        lock.readLock().lock();
+        try {
+            return new Snapshot<>(collect(products, productsByCategory.getOrDefault(category, Set.of()),
+                    Comparator.comparing(ProductEntry::productId)), ledgerHeight);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Products with minQuantity <= quantity < maxQuantity, lowest stock first; either bound may be null
+    public Snapshot<ProductEntry> productsByQuantity(Integer minQuantity, Integer maxQuantity) {
+        lock.readLock().lock();
+        try {
+            Map<Integer, Set<String>> range = productsByQuantity;
+            if (minQuantity != null && maxQuantity != null) {
+                range = minQuantity < maxQuantity ? productsByQuantity.subMap(minQuantity, maxQuantity) : Map.of();
+            } else if (minQuantity != null) {
+                range = productsByQuantity.tailMap(minQuantity, true);
+            } else if (maxQuantity != null) {
+                range = productsByQuantity.headMap(maxQuantity, false);
+            }
+            List<ProductEntry> out = new ArrayList<>();
+            for (Set<String> ids : range.values()) {
+                for (String id : ids) {
+                    out.add(products.get(id));
+                }
+            }
+            return new Snapshot<>(out, ledgerHeight);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Snapshot<ShipmentEntry> shipmentsByStatus(String status) {
+        lock.readLock().lock();
+        try {
+            return new Snapshot<>(collect(shipments, shipmentsByStatus.getOrDefault(status, Set.of()),
+                    Comparator.comparing(ShipmentEntry::shipmentId)), ledgerHeight);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Snapshot<ShipmentEntry> shipmentsByCarrier(String carrier) {
+        lock.readLock().lock();
+        try {
+            return new Snapshot<>(collect(shipments, shipmentsByCarrier.getOrDefault(carrier, Set.of()),
+                    Comparator.comparing(ShipmentEntry::shipmentId)), ledgerHeight);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <T> List<T> collect(Map<String, T> rows, Set<String> ids, Comparator<T> order) {
+        List<T> out = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            out.add(rows.get(id));
+        }
+        out.sort(order);
+        return out;
+    }
+
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("active", isActive());
+            out.put("loaded", loaded);
+            out.put("loadAttempts", loadAttempts);
+            if (lastLoadError != null) {
+                out.put("lastLoadError", lastLoadError);
+            }
+            out.put("ledgerHeight", ledgerHeight);
+            out.put("products", products.size());
+            out.put("shipments", shipments.size());
+            out.put("categories", productsByCategory.size());
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
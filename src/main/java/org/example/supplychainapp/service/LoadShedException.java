@@ -0,0 +1,19 @@
+package org.example.supplychainapp.service;
+
+/**
+ * Thrown instead of calling the ledger when the concurrency limit for that kind of call is reached.
+ * Unchecked so it passes through callers typed on other exceptions; stackless because under
+ * overload it is thrown often and the stack says nothing.
+ */
+public class LoadShedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public LoadShedException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.supplychainapp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Separate adaptive concurrency limits for ledger reads and writes (see {@link ConcurrencyLimiter}),
+ * applied by FabricService to every call to the local peers or the remote instance. A call over
+ * the limit fails fast with {@link LoadShedException}, answered as 503 with Retry-After. Local
+ * synchronous writes take their permit only once {@link WriteSequencer} holds their keys, per
+ * attempt, so waiting behind a hot key or backing off after a conflict is not measured as load.
+ */
+@Component
+public class LoadShedder {
+
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+    private final ConcurrencyLimiter reads;
+    private final ConcurrencyLimiter writes;
+
+    public LoadShedder(@Value("${supplychain.limit.enabled:true}") boolean enabled,
+                       @Value("${supplychain.limit.reads.initial:50}") int readsInitial,
+                       @Value("${supplychain.limit.reads.max:500}") int readsMax,
+                       @Value("${supplychain.limit.writes.initial:20}") int writesInitial,
+                       @Value("${supplychain.limit.writes.max:200}") int writesMax,
+                       @Value("${supplychain.limit.min:4}") int minLimit,
+                       @Value("${supplychain.limit.tolerance:1.5}") double tolerance,
+                       @Value("${supplychain.limit.smoothing:0.2}") double smoothing,
+                       @Value("${supplychain.limit.backoff-ratio:0.9}") double backoffRatio,
+                       @Value("${supplychain.limit.retry-after-seconds:1}") long retryAfterSeconds,
+                       FabricMetrics metrics) {
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.reads = new ConcurrencyLimiter(new ConcurrencyLimiter.Settings(readsInitial, minLimit, readsMax,
+                tolerance, smoothing, backoffRatio));
+        this.writes = new ConcurrencyLimiter(new ConcurrencyLimiter.Settings(writesInitial, minLimit, writesMax,
+                tolerance, smoothing, backoffRatio));
+        metrics.registerLimiter("read", reads);
+        metrics.registerLimiter("write", writes);
+    }
+
+    public <T, E extends Exception> T execute(boolean write, Call<T, E> call) throws E {
+        if (!enabled) {
+            return call.call();
+        }
+        ConcurrencyLimiter limiter = write ? writes : reads;
+        if (!limiter.tryAcquire()) {
+            throw new LoadShedException("Too many concurrent ledger " + (write ? "writes" : "reads"), retryAfterSeconds);
+        }
+        long start = System.nanoTime();
+        boolean didDrop = false;
+        try {
+            return call.call();
+        } catch (Exception e) {
+            didDrop = ErrorCode.classify(e) == ErrorCode.UNAVAILABLE;
+            throw e;
+        } finally {
+            limiter.release(System.nanoTime() - start, didDrop);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("reads", reads.stats());
+        out.put("writes", writes.stats());
+        return out;
+    }
+}
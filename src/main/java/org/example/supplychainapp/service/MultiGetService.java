@@ -0,0 +1,94 @@
+package org.example.supplychainapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.supplychainapp.conf.RequestLogSampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads many products or shipments in one request by fanning the individual
+ * {@link FabricService} reads out over a bounded worker pool, so N lookups cost roughly one
+ * round trip instead of N. Reads still go through the read cache and in-flight coalescing.
+ */
+@Service
+public class MultiGetService {
+    private static final Logger logger = LoggerFactory.getLogger(MultiGetService.class);
+
+    public static final String STATUS_FOUND = "found";
+    public static final String STATUS_NOT_FOUND = "not-found";
+    public static final String STATUS_FAILED = "failed";
+
+    @FunctionalInterface
+    private interface Reader {
+        byte[] read(String id) throws FabricServiceException;
+    }
+
+    private final FabricService fabricService;
+    private final BoundedFanOut fanOut;
+
+    public MultiGetService(FabricService fabricService,
+                           @Value("${supplychain.multi-get.parallelism:32}") int parallelism,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.fabricService = fabricService;
+        this.fanOut = new BoundedFanOut("multi-get-", parallelism, virtualThreads);
+    }
+
+    /**
+     * One entry per distinct id, in request order, with keys productId, status and either
+     * product (the ledger JSON) or error.
+     */
+    public List<Map<String, String>> readProducts(List<String> productIds) {
+        return readAll(productIds, "productId", "product", fabricService::readProduct);
+    }
+
+    // Same shape as readProducts, keyed by shipmentId with the ledger JSON under shipment
+    public List<Map<String, String>> readShipments(List<String> shipmentIds) {
+        return readAll(shipmentIds, "shipmentId", "shipment", fabricService::getShipment);
+    }
+
+    private List<Map<String, String>> readAll(List<String> ids, String idKey, String valueKey, Reader reader) {
+        LinkedHashSet<String> distinct = new LinkedHashSet<>(ids);
+        logger.info(RequestLogSampler.REQUEST, "Service: Multi-get of {} {} values ({} distinct)", ids.size(), valueKey, distinct.size());
+        return fanOut.map(distinct, id -> readOne(id, idKey, valueKey, reader),
+                id -> result(idKey, id, STATUS_FAILED, "error", "Interrupted"));
+    }
+
+    private Map<String, String> readOne(String id, String idKey, String valueKey, Reader reader) {
+        if (id == null || id.isBlank()) {
+            return result(idKey, id, STATUS_FAILED, "error", "Missing id");
+        }
+        try {
+            byte[] value = reader.read(id);
+            return result(idKey, id, STATUS_FOUND, valueKey, new String(value, StandardCharsets.UTF_8));
+        } catch (FabricServiceException | RuntimeException e) {
+            if (ErrorCode.classify(e) == ErrorCode.NOT_FOUND) {
+                return result(idKey, id, STATUS_NOT_FOUND, null, null);
+            }
+            logger.warn("Service: Multi-get read failed for {}={} error={}", idKey, id, e.getMessage());
+            return result(idKey, id, STATUS_FAILED, "error", e.getMessage());
+        }
+    }
+
+    private static Map<String, String> result(String idKey, String id, String status, String key, String value) {
+        Map<String, String> out = new LinkedHashMap<>();
+        out.put(idKey, id == null ? "" : id);
+        out.put("status", status);
+        if (key != null) {
+            out.put(key, value == null ? "" : value);
+        }
+        return out;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOut.shutdown();
+    }
+}
@@ -0,0 +1,217 @@
+package org.example.supplychainapp.service;
+
+import org.example.supplychainapp.remote.PeakEwmaStats;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.spi.Query;
+import org.hyperledger.fabric.gateway.spi.QueryHandler;
+import org.hyperledger.fabric.gateway.spi.QueryHandlerFactory;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query handler that spreads evaluate calls over the channel's query peers instead of always
+ * using the first peer of this organization. The peer list (static network config, or the
+ * discovery result when discovery is on) is cached per network and re-read every refreshMillis.
+ * <p>
+ * Each call tries one peer chosen with power-of-two-choices on peak-EWMA latency times (in-flight
+ * + 1), then falls back to the remaining peers, cheapest first. Only peer failures move on to the
+ * next peer: an exception, no proposal response at all, or a peer-side rejection such as access
+ * denied or chaincode not installed. Peers that fail
+ * ejectAfterFailures times in a row are skipped for ejectMillis. A chaincode error (e.g. an asset
+ * that does not exist) is the answer every peer would give, so it is returned at once and counts as
+ * healthy. Latency and health are shared by every gateway in the pool.
+ */
+public class PeerQueryHandlerFactory implements QueryHandlerFactory {
+    private static final Logger logger = LoggerFactory.getLogger(PeerQueryHandlerFactory.class);
+
+    public static final String SCOPE_CHANNEL = "channel";
+    public static final String SCOPE_ORG = "org";
+
+    // Peer-side rejections that another peer may not share; any other error response is the chaincode's
+    private static final List<String> PEER_ERROR_MARKERS = List.of(
+            "access denied", "is not installed", "make sure the chaincode");
+
+    public record Settings(String scope, long refreshMillis, int ejectAfterFailures, long ejectMillis) {
+    }
+
+    private final Settings settings;
+    private final ConcurrentMap<String, PeakEwmaStats> stats = new ConcurrentHashMap<>();
+
+    public PeerQueryHandlerFactory(Settings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public QueryHandler create(Network network) {
+        return new Handler(network);
+    }
+
+    private final class Handler implements QueryHandler {
+        private final Network network;
+        private volatile List<Peer> peers = List.of();
+        private volatile long refreshedAt;
+
+        Handler(Network network) {
+            this.network = network;
+        }
+
+        @Override
+        public ProposalResponse evaluate(Query query) throws ContractException {
+            List<Peer> ordered = order(currentPeers());
+            if (ordered.isEmpty()) {
+                throw new ContractException("No query peers available on channel " + network.getChannel().getName());
+            }
+            List<String> errors = new ArrayList<>();
+            for (Peer peer : ordered) {
+                PeakEwmaStats s = statsOf(peer);
+                s.start();
+                long start = System.nanoTime();
+                try {
+                    ProposalResponse response = query.evaluate(peer);
+                    if (!isPeerFailure(response)) {
+                        // Valid or a chaincode error: either way this peer answered
+                        s.success(System.nanoTime() - start);
+                        return response;
+                    }
+                    failure(s);
+                    errors.add(peer.getName() + ": " + response.getMessage());
+                } catch (Exception e) {
+                    // Unreachable peer: note it and move on to the next one
+                    failure(s);
+                    errors.add(peer.getName() + ": " + e.getMessage());
+                } finally {
+                    s.finish();
+                }
+            }
+            throw new ContractException("No valid proposal responses received from query peers: " + errors);
+        }
+
+        private List<Peer> currentPeers() {
+            long now = System.nanoTime();
+            if (peers.isEmpty() || now - refreshedAt > TimeUnit.MILLISECONDS.toNanos(settings.refreshMillis())) {
+                refresh();
+                refreshedAt = now;
+            }
+            return peers;
+        }
+
+        private void refresh() {
+            Channel channel = network.getChannel();
+            Collection<Peer> candidates = channel.getPeers(EnumSet.of(Peer.PeerRole.CHAINCODE_QUERY));
+            if (SCOPE_ORG.equalsIgnoreCase(settings.scope())) {
+                try {
+                    Set<Peer> own = new HashSet<>(channel.getPeersForOrganization(network.getGateway().getIdentity().getMspId()));
+                    candidates = candidates.stream().filter(own::contains).toList();
+                } catch (Exception e) {
+                    logger.warn("Could not resolve own organization peers, using all query peers: {}", e.getMessage());
+                }
+            }
+            List<Peer> fresh = List.copyOf(candidates);
+            if (fresh.size() != peers.size()) {
+                logger.info("Query peers on channel {}: {}", channel.getName(), fresh.stream().map(Peer::getName).toList());
+            }
+            peers = fresh;
+        }
+    }
+
+    // isVerified() is no signal here: the SDK leaves every invalid response unverified,
+    // chaincode errors included
+    static boolean isPeerFailure(ProposalResponse response) {
+        if (!response.isInvalid()) {
+            return false;
+        }
+        if (response.getProposalResponse() == null) {
+            return true;
+        }
+        String message = response.getMessage() == null ? "" : response.getMessage().toLowerCase(Locale.ROOT);
+        return PEER_ERROR_MARKERS.stream().anyMatch(message::contains);
+    }
+
+    private void failure(PeakEwmaStats s) {
+        if (s.failure(settings.ejectAfterFailures(), settings.ejectMillis())) {
+            logger.warn("Ejecting query peer {} for {} ms after {} consecutive failures",
+                    s.name(), settings.ejectMillis(), s.consecutiveFailures());
+        }
+    }
+
+    private PeakEwmaStats statsOf(Peer peer) {
+        return stats.computeIfAbsent(peer.getName(), PeakEwmaStats::new);
+    }
+
+    // First pick by power-of-two-choices among healthy peers, then everyone else cheapest first
+    private List<Peer> order(List<Peer> peers) {
+        if (peers.size() <= 1) {
+            return peers;
+        }
+        long now = System.nanoTime();
+        // Costs are sampled once so the sort sees a consistent ordering
+        Map<Peer, Double> costs = new HashMap<>();
+        List<Peer> healthy = new ArrayList<>(peers.size());
+        for (Peer p : peers) {
+            costs.put(p, cost(p, now));
+            if (!statsOf(p).isEjected(now)) {
+                healthy.add(p);
+            }
+        }
+        List<Peer> ordered = new ArrayList<>(peers);
+        ordered.sort(Comparator.comparingDouble(costs::get));
+        if (healthy.size() >= 2) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int i = random.nextInt(healthy.size());
+            int j = random.nextInt(healthy.size() - 1);
+            if (j >= i) {
+                j++;
+            }
+            Peer a = healthy.get(i);
+            Peer b = healthy.get(j);
+            Peer first = costs.get(a) <= costs.get(b) ? a : b;
+            ordered.remove(first);
+            ordered.add(0, first);
+        }
+        return ordered;
+    }
+
+    // Ejected peers sort last; an idle peer without samples costs 0 and gets tried
+    private double cost(Peer peer, long now) {
+        PeakEwmaStats s = statsOf(peer);
+        return s.isEjected(now) ? Double.MAX_VALUE : s.cost(now);
+    }
+
+    public Map<String, Object> stats() {
+        long now = System.nanoTime();
+        Map<String, Object> perPeer = new LinkedHashMap<>();
+        for (PeakEwmaStats s : stats.values()) {
+            Map<String, Object> p = new LinkedHashMap<>();
+            p.put("outstanding", s.outstanding());
+            p.put("ewmaMillis", s.ewmaNanos(now) / 1_000_000.0);
+            p.put("calls", s.calls());
+            p.put("consecutiveFailures", s.consecutiveFailures());
+            p.put("ejected", s.isEjected(now));
+            perPeer.put(s.name(), p);
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("scope", settings.scope());
+        out.put("peers", perPeer);
+        return out;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.supplychainapp.service;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.spi.CommitHandler;
+import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Wraps the gateway's commit handler to split a submit into its two phases. The gateway asks for
+ * a commit handler only once endorsement has finished, so creation time marks the end of the
+ * endorsement phase and waitForEvents returning marks the end of ordering plus commit.
+ */
+class PhaseTimingCommitHandlerFactory implements CommitHandlerFactory {
+
+    private final FabricMetrics metrics;
+    private final String function;
+    private final CommitHandlerFactory delegate;
+    private final long startNanos = System.nanoTime();
+
+    PhaseTimingCommitHandlerFactory(FabricMetrics metrics, String function, CommitHandlerFactory delegate) {
+        this.metrics = metrics;
+        this.function = function;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CommitHandler create(String transactionId, Network network) {
+        long endorsedNanos = System.nanoTime();
+        metrics.recordPhase(function, FabricMetrics.PHASE_ENDORSE, endorsedNanos - startNanos);
+        CommitHandler handler = delegate.create(transactionId, network);
+        return new CommitHandler() {
+            @Override
+            public void startListening() {
+                handler.startListening();
+            }
+
+            @Override
+            public void waitForEvents(long timeout, TimeUnit timeUnit)
+                    throws ContractException, TimeoutException, InterruptedException {
+                try {
+                    handler.waitForEvents(timeout, timeUnit);
+                } finally {
+                    metrics.recordPhase(function, FabricMetrics.PHASE_COMMIT, System.nanoTime() - endorsedNanos);
+                }
+            }
+
+            @Override
+            public void cancelListening() {
+                handler.cancelListening();
+            }
+        };
+    }
+}
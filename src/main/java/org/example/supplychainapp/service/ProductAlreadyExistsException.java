@@ -5,11 +5,11 @@ package org.example.supplychainapp.service;
  */
 public class ProductAlreadyExistsException extends FabricServiceException {
     public ProductAlreadyExistsException(String message) {
-        super(message);
+        super(ErrorCode.ALREADY_EXISTS, message);
     }
 
     public ProductAlreadyExistsException(String message, Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.ALREADY_EXISTS, message, cause);
     }
 }
 
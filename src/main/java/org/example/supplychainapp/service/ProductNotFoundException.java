@@ -5,11 +5,11 @@ package org.example.supplychainapp.service;
  */
 public class ProductNotFoundException extends FabricServiceException {
     public ProductNotFoundException(String message) {
-        super(message);
+        super(ErrorCode.NOT_FOUND, message);
     }
 
     public ProductNotFoundException(String message, Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.NOT_FOUND, message, cause);
     }
 }
 
@@ -0,0 +1,85 @@
+package org.example.supplychainapp.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the call, callers that
+ * arrive while it is in flight wait for it and get the same result or exception. Nothing is
+ * remembered once the call completes, so this is not a cache.
+ */
+final class SingleFlight<T> {
+
+    @FunctionalInterface
+    interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private final ConcurrentMap<Object, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final Runnable onCoalesced;
+
+    SingleFlight(Runnable onCoalesced) {
+        this.onCoalesced = onCoalesced;
+    }
+
+    <E extends Exception> T execute(Object key, Call<T, E> call) throws E {
+        CompletableFuture<T> mine = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            onCoalesced.run();
+            return await(existing);
+        }
+        try {
+            T result = call.call();
+            mine.complete(result);
+            return result;
+        } catch (Exception | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Number of calls that were served by another caller's in-flight call
+    long coalescedCount() {
+        return coalesced.get();
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    // The leader's exception came from the same Call, so it is either unchecked or an E
+    @SuppressWarnings("unchecked")
+    private static <T, E extends Exception> T await(CompletableFuture<T> future) throws E {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException re) {
+                        throw re;
+                    }
+                    if (cause instanceof Error err) {
+                        throw err;
+                    }
+                    throw (E) cause;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
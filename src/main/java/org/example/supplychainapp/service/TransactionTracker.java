@@ -0,0 +1,110 @@
+package org.example.supplychainapp.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Tracks transactions submitted without waiting for commit. Each one is registered as pending
+ * before it is sent to the orderer and is resolved to committed/invalid by a block listener
+ * on the ledger network, registered once {@link LedgerConnection} is up. Entries expire after a
+ * retention window.
+ */
+@Component
+public class TransactionTracker {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionTracker.class);
+
+    public static final String PENDING = "pending";
+    public static final String COMMITTED = "committed";
+    public static final String INVALID = "invalid";
+    public static final String FAILED = "failed";
+
+    /**
+     * Snapshot of a tracked transaction. blockNumber and validationCode are only set once the
+     * transaction has been seen in a block.
+     */
+    public record Status(String txId, String function, String status, Long blockNumber,
+                         Integer validationCode, String message) {
+    }
+
+    private final ObjectProvider<LedgerConnection> connectionProvider;
+    private final Cache<String, Status> transactions;
+    private volatile Network network;
+    private volatile Consumer<BlockEvent> blockListener;
+
+    public TransactionTracker(ObjectProvider<LedgerConnection> connectionProvider,
+                              @Value("${supplychain.async-submit.retention-minutes:10}") long retentionMinutes,
+                              @Value("${supplychain.async-submit.max-tracked:100000}") long maxTracked) {
+        this.connectionProvider = connectionProvider;
+        this.transactions = CacheBuilder.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterWrite(retentionMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    @PostConstruct
+    void register() {
+        LedgerConnection connection = connectionProvider.getIfAvailable();
+        if (connection == null) {
+            logger.info("No Fabric network available; async submit tracking disabled");
+            return;
+        }
+        connection.whenConnected(c -> {
+            network = c.network();
+            blockListener = network.addBlockListener(this::onBlock);
+        });
+    }
+
+    @PreDestroy
+    void unregister() {
+        if (network != null && blockListener != null) {
+            network.removeBlockListener(blockListener);
+        }
+    }
+
+    // Async submits are only offered when commit events can be observed
+    public boolean isActive() {
+        return blockListener != null;
+    }
+
+    public void track(String txId, String function) {
+        transactions.put(txId, new Status(txId, function, PENDING, null, null, null));
+    }
+
+    public void fail(String txId, String message) {
+        Status current = transactions.getIfPresent(txId);
+        String function = current == null ? null : current.function();
+        transactions.put(txId, new Status(txId, function, FAILED, null, null, message));
+    }
+
+    public Status get(String txId) {
+        return transactions.getIfPresent(txId);
+    }
+
+    void onBlock(BlockEvent blockEvent) {
+        long blockNumber = blockEvent.getBlockNumber();
+        for (BlockEvent.TransactionEvent tx : blockEvent.getTransactionEvents()) {
+            Status current = transactions.getIfPresent(tx.getTransactionID());
+            if (current == null) {
+                continue;
+            }
+            int code = tx.getValidationCode();
+            String status = tx.isValid() ? COMMITTED : INVALID;
+            transactions.put(current.txId(), new Status(current.txId(), current.function(), status, blockNumber, code, null));
+            if (!tx.isValid()) {
+                logger.warn("Async transaction invalidated: txId={} function={} validationCode={}", current.txId(), current.function(), code);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.supplychainapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Orders local submits that touch the same ledger keys and retries MVCC conflicts. Keys hash onto
+ * a fixed set of fair lock stripes, so two writes to one product or shipment run one after the
+ * other inside this instance (and cannot invalidate each other) while writes to unrelated keys
+ * still run in parallel. A submit that is still invalidated with MVCC_READ_CONFLICT or
+ * PHANTOM_READ_CONFLICT, e.g. by another instance, is retried after a jittered exponential backoff
+ * taken outside the stripe lock. An invalidated transaction has no effect on the ledger, so
+ * retrying it is safe for every write function.
+ */
+@Component
+public class WriteSequencer {
+    private static final Logger logger = LoggerFactory.getLogger(WriteSequencer.class);
+
+    @FunctionalInterface
+    public interface Submit<T> {
+        T submit() throws Exception;
+    }
+
+    private final ReentrantLock[] stripes;
+    private final boolean sequencingEnabled;
+    private final int maxRetries;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final FabricMetrics metrics;
+
+    private final AtomicLong sequencedWaits = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong recovered = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+
+    public WriteSequencer(@Value("${supplychain.write.sequence-per-key:true}") boolean sequencingEnabled,
+                          @Value("${supplychain.write.stripes:256}") int stripeCount,
+                          @Value("${supplychain.write.conflict-retries:3}") int maxRetries,
+                          @Value("${supplychain.write.retry-backoff-ms:25}") long baseBackoffMs,
+                          @Value("${supplychain.write.retry-max-backoff-ms:400}") long maxBackoffMs,
+                          FabricMetrics metrics) {
+        this.sequencingEnabled = sequencingEnabled;
+        // Power of two so a stripe is picked with a mask
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.maxRetries = Math.max(0, maxRetries);
+        this.baseBackoffMs = Math.max(1, baseBackoffMs);
+        this.maxBackoffMs = Math.max(this.baseBackoffMs, maxBackoffMs);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Runs submit while holding the stripes of all keys, retrying it when it fails with an MVCC
+     * conflict. The last conflict is rethrown once the retries are used up.
+     */
+    public <T> T submit(String function, List<String> keys, Submit<T> submit) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                T result = sequencingEnabled ? sequenced(keys, submit) : submit.submit();
+                if (attempt > 0) {
+                    recovered.incrementAndGet();
+                }
+                return result;
+            } catch (Exception e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                conflicts.incrementAndGet();
+                if (attempt >= maxRetries) {
+                    exhausted.incrementAndGet();
+                    metrics.recordConflict(function, FabricMetrics.CONFLICT_EXHAUSTED);
+                    logger.warn("MVCC conflict on {} keys={} not resolved after {} retries", function, keys, maxRetries);
+                    throw e;
+                }
+                retries.incrementAndGet();
+                metrics.recordConflict(function, FabricMetrics.CONFLICT_RETRIED);
+                long delay = backoff(attempt);
+                logger.info("MVCC conflict on {} keys={}, retry {} in {}ms", function, keys, attempt + 1, delay);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private <T> T sequenced(List<String> keys, Submit<T> submit) throws Exception {
+        // Distinct stripes in ascending order, so writes over several keys cannot deadlock
+        int[] indexes = keys.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock()) {
+                    sequencedWaits.incrementAndGet();
+                    lock.lockInterruptibly();
+                }
+                locked++;
+            }
+            return submit.submit();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    private int stripeOf(String key) {
+        int h = key == null ? 0 : key.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    // Full jitter: uniform in [0, min(max, base * 2^attempt)]
+    private long backoff(int attempt) {
+        long cap = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    // Fabric reports the validation code in the endorsement or commit failure message
+    static boolean isConflict(Throwable e) {
+        return ErrorCode.classify(e) == ErrorCode.MVCC_CONFLICT;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("sequencing", sequencingEnabled);
+        out.put("stripes", stripes.length);
+        out.put("busyStripes", Arrays.stream(stripes).filter(ReentrantLock::isLocked).count());
+        out.put("sequencedWaits", sequencedWaits.get());
+        out.put("conflicts", conflicts.get());
+        out.put("retries", retries.get());
+        out.put("recovered", recovered.get());
+        out.put("exhausted", exhausted.get());
+        return out;
+    }
+}
@@ -0,0 +1,316 @@
+package org.example.supplychainapp.simulation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.Transaction;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-memory stand-in for the SupplyChainContract chaincode, used for load and capacity tests
+ * without a Fabric network. Implements the AssetContract/ShipmentContract functions FabricService
+ * calls with the same error wording as the chaincode, and adds configurable endorsement/commit
+ * latency and failure rate. Exposed to the application as a {@link Contract} via {@link #asContract()}.
+ */
+public class SimulatedLedger {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Map<String, Object>> products = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> shipments = new ConcurrentHashMap<>();
+    private final Map<String, Queue<Map<String, Object>>> auditLogs = new ConcurrentHashMap<>();
+    private final AtomicLong blockHeight = new AtomicLong();
+
+    private final long endorseLatencyMs;
+    private final long commitLatencyMs;
+    private final double jitter;
+    private final double failureRate;
+
+    /**
+     * @param endorseLatencyMs mean latency added to every evaluate and to the endorse phase of a submit
+     * @param commitLatencyMs  mean latency added to the order/commit phase of a submit
+     * @param jitter           relative +/- spread applied to both latencies, 0..1
+     * @param failureRate      probability that a call fails with a simulated peer error, 0..1
+     */
+    public SimulatedLedger(long endorseLatencyMs, long commitLatencyMs, double jitter, double failureRate) {
+        this.endorseLatencyMs = endorseLatencyMs;
+        this.commitLatencyMs = commitLatencyMs;
+        this.jitter = jitter;
+        this.failureRate = failureRate;
+    }
+
+    public long getBlockHeight() {
+        return blockHeight.get();
+    }
+
+    // ========================= ENTRY POINTS =========================
+
+    public byte[] evaluate(String function, String... args) throws ContractException {
+        pause(endorseLatencyMs);
+        maybeFail(function);
+        return switch (function) {
+            case "AssetContract:readProduct" -> toJson(require(products, arg(args, 0), "Product"));
+            case "AssetContract:getAuditLogsByProductId" -> readAuditLog(arg(args, 0));
+            case "ShipmentContract:getShipment" -> toJson(require(shipments, arg(args, 0), "Shipment"));
+            default -> throw new ContractException("Unknown query function: " + function);
+        };
+    }
+
+    public byte[] submit(String txId, String function, String... args) throws ContractException {
+        pause(endorseLatencyMs);
+        maybeFail(function);
+        byte[] result = apply(txId, function, args);
+        pause(commitLatencyMs);
+        blockHeight.incrementAndGet();
+        return result;
+    }
+
+    // ========================= CHAINCODE FUNCTIONS =========================
+
+    private byte[] apply(String txId, String function, String[] args) throws ContractException {
+        return switch (function) {
+            case "AssetContract:createProduct" -> createProduct(txId, arg(args, 0), arg(args, 1), arg(args, 2), arg(args, 3));
+            case "AssetContract:updateProductQuantity" -> updateProductQuantity(txId, arg(args, 0), arg(args, 1));
+            case "AssetContract:deleteProduct" -> deleteProduct(txId, arg(args, 0));
+            case "ShipmentContract:createShipment" ->
+                    createShipment(txId, arg(args, 0), arg(args, 1), arg(args, 2), arg(args, 3), arg(args, 4), arg(args, 5));
+            case "ShipmentContract:updateShipmentStatus" -> updateShipmentStatus(txId, arg(args, 0), arg(args, 1));
+            case "ShipmentContract:placeOrder" -> placeOrder(txId, arg(args, 0), arg(args, 1));
+            default -> throw new ContractException("Unknown transaction function: " + function);
+        };
+    }
+
+    private byte[] createProduct(String txId, String productId, String name, String category, String quantity) throws ContractException {
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("productId", productId);
+        product.put("productName", name);
+        product.put("category", category);
+        product.put("quantity", parseQuantity(quantity));
+        if (products.putIfAbsent(productId, product) != null) {
+            throw new ContractException(String.format("Product %s already exists", productId));
+        }
+        audit(txId, productId, "CREATE", product);
+        return toJson(product);
+    }
+
+    private byte[] updateProductQuantity(String txId, String productId, String quantity) throws ContractException {
+        int newQuantity = parseQuantity(quantity);
+        Map<String, Object> updated = products.computeIfPresent(productId, (id, current) -> {
+            Map<String, Object> copy = new LinkedHashMap<>(current);
+            copy.put("quantity", newQuantity);
+            return copy;
+        });
+        if (updated == null) {
+            throw notFound("Product", productId);
+        }
+        audit(txId, productId, "UPDATE", updated);
+        return toJson(updated);
+    }
+
+    private byte[] deleteProduct(String txId, String productId) throws ContractException {
+        Map<String, Object> removed = products.remove(productId);
+        if (removed == null) {
+            throw notFound("Product", productId);
+        }
+        audit(txId, productId, "DELETE", removed);
+        return new byte[0];
+    }
+
+    private byte[] createShipment(String txId, String shipmentId, String productId, String origin, String destination,
+                                  String carrier, String quantity) throws ContractException {
+        require(products, productId, "Product");
+        Map<String, Object> shipment = new LinkedHashMap<>();
+        shipment.put("shipmentId", shipmentId);
+        shipment.put("productId", productId);
+        shipment.put("origin", origin);
+        shipment.put("destination", destination);
+        shipment.put("carrier", carrier);
+        shipment.put("quantity", parseQuantity(quantity));
+        shipment.put("status", "CREATED");
+        if (shipments.putIfAbsent(shipmentId, shipment) != null) {
+            throw new ContractException(String.format("Shipment %s already exists", shipmentId));
+        }
+        audit(txId, productId, "SHIPMENT_CREATED", shipment);
+        return toJson(shipment);
+    }
+
+    private byte[] updateShipmentStatus(String txId, String shipmentId, String status) throws ContractException {
+        Map<String, Object> updated = shipments.computeIfPresent(shipmentId, (id, current) -> {
+            Map<String, Object> copy = new LinkedHashMap<>(current);
+            copy.put("status", status);
+            return copy;
+        });
+        if (updated == null) {
+            throw notFound("Shipment", shipmentId);
+        }
+        audit(txId, String.valueOf(updated.get("productId")), "SHIPMENT_" + status, updated);
+        return toJson(updated);
+    }
+
+    private byte[] placeOrder(String txId, String productId, String quantity) throws ContractException {
+        int ordered = parseQuantity(quantity);
+        if (ordered <= 0) {
+            throw new ContractException("Order quantity must be positive");
+        }
+        // Decrement atomically; the holder reports why the update was refused
+        String[] refusal = new String[1];
+        Map<String, Object> updated = products.computeIfPresent(productId, (id, current) -> {
+            int stock = ((Number) current.get("quantity")).intValue();
+            if (stock < ordered) {
+                refusal[0] = String.format("Insufficient stock for product %s: available=%d, requested=%d", productId, stock, ordered);
+                return current;
+            }
+            Map<String, Object> copy = new LinkedHashMap<>(current);
+            copy.put("quantity", stock - ordered);
+            return copy;
+        });
+        if (updated == null) {
+            throw notFound("Product", productId);
+        }
+        if (refusal[0] != null) {
+            throw new ContractException(refusal[0]);
+        }
+        audit(txId, productId, "ORDER", updated);
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("orderId", txId);
+        order.put("productId", productId);
+        order.put("quantity", ordered);
+        order.put("remaining", updated.get("quantity"));
+        return toJson(order);
+    }
+
+    private byte[] readAuditLog(String productId) throws ContractException {
+        Queue<Map<String, Object>> entries = auditLogs.get(productId);
+        if (entries == null || entries.isEmpty()) {
+            throw new ContractException(String.format("No audit log found for product %s", productId));
+        }
+        return toJson(new ArrayList<>(entries));
+    }
+
+    // ========================= HELPERS =========================
+
+    private void audit(String txId, String productId, String action, Map<String, Object> value) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("txId", txId);
+        entry.put("timestamp", Instant.now().toString());
+        entry.put("action", action);
+        entry.put("value", value);
+        auditLogs.computeIfAbsent(productId, id -> new ConcurrentLinkedQueue<>()).add(entry);
+    }
+
+    private static Map<String, Object> require(Map<String, Map<String, Object>> store, String id, String kind) throws ContractException {
+        Map<String, Object> value = store.get(id);
+        if (value == null) {
+            throw notFound(kind, id);
+        }
+        return value;
+    }
+
+    private static ContractException notFound(String kind, String id) {
+        return new ContractException(String.format("%s %s does not exist", kind, id));
+    }
+
+    private static String arg(String[] args, int index) throws ContractException {
+        if (args == null || index >= args.length) {
+            throw new ContractException("Incorrect number of arguments");
+        }
+        return args[index];
+    }
+
+    private static int parseQuantity(String quantity) throws ContractException {
+        try {
+            return Integer.parseInt(quantity);
+        } catch (NumberFormatException e) {
+            throw new ContractException("Invalid quantity: " + quantity);
+        }
+    }
+
+    private byte[] toJson(Object value) throws ContractException {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new ContractException("Failed to serialize state: " + e.getMessage(), e);
+        }
+    }
+
+    private void maybeFail(String function) throws ContractException {
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new ContractException("Simulated peer failure for " + function + ": UNAVAILABLE");
+        }
+    }
+
+    private void pause(long meanMs) {
+        if (meanMs <= 0) {
+            return;
+        }
+        double spread = jitter <= 0 ? 0 : ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        long sleepMs = Math.max(0, Math.round(meanMs * (1 + spread)));
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========================= CONTRACT ADAPTER =========================
+
+    /**
+     * Returns a {@link Contract} backed by this ledger. Submit/evaluate/createTransaction are
+     * implemented; event listener registration is accepted and ignored.
+     */
+    public Contract asContract() {
+        return (Contract) Proxy.newProxyInstance(Contract.class.getClassLoader(), new Class<?>[]{Contract.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "submitTransaction" -> submit(newTxId(), (String) args[0], (String[]) args[1]);
+                    case "evaluateTransaction" -> evaluate((String) args[0], (String[]) args[1]);
+                    case "createTransaction" -> newTransaction((String) args[0]);
+                    case "addContractListener" -> findListener(args);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "SimulatedContract";
+                    default -> null;
+                });
+    }
+
+    private Transaction newTransaction(String function) {
+        String txId = newTxId();
+        return (Transaction) Proxy.newProxyInstance(Transaction.class.getClassLoader(), new Class<?>[]{Transaction.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getName" -> function;
+                    case "getTransactionId" -> txId;
+                    case "submit" -> submit(txId, function, (String[]) args[0]);
+                    case "evaluate" -> evaluate(function, (String[]) args[0]);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "SimulatedTransaction[" + function + "]";
+                    // fluent setters (transient data, endorsing peers, commit handler/timeout)
+                    default -> method.getReturnType().isInstance(proxy) ? proxy : null;
+                });
+    }
+
+    // addContractListener returns the registered listener, whichever argument position it is in
+    private static Object findListener(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Consumer<?>) {
+                return arg;
+            }
+        }
+        return null;
+    }
+
+    private static String newTxId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.supplychainapp;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.example.supplychainapp.remote.RemoteInstanceBalancer;
+import org.example.supplychainapp.remote.RemoteResilienceInterceptor;
+import org.example.supplychainapp.service.BulkProductService;
+import org.example.supplychainapp.service.ChangeStreamService;
+import org.example.supplychainapp.service.ErrorCode;
+import org.example.supplychainapp.service.FabricService;
+import org.example.supplychainapp.service.FabricServiceException;
+import org.example.supplychainapp.service.LedgerReadCache;
+import org.example.supplychainapp.service.LedgerView;
+import org.example.supplychainapp.service.MultiGetService;
+import org.example.supplychainapp.service.TransactionTracker;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SupplyChainControllerTest {
+    private FabricService fabricService;
+    private SupplyChainController controller;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        fabricService = Mockito.mock(FabricService.class);
+        controller = new SupplyChainController(fabricService, Mockito.mock(LedgerReadCache.class),
+                Mockito.mock(LedgerView.class), Mockito.mock(BulkProductService.class),
+                Mockito.mock(MultiGetService.class), Mockito.mock(ChangeStreamService.class),
+                Mockito.mock(PoolingHttpClientConnectionManager.class),
+                Mockito.mock(RemoteResilienceInterceptor.class), Mockito.mock(RemoteInstanceBalancer.class),
+                Mockito.mock(ObjectProvider.class));
+    }
+
+    @Test
+    @DisplayName("tx status answers with the tracked state, or 404 for unknown and expired ids")
+    void transactionStatus() {
+        TransactionTracker.Status committed = new TransactionTracker.Status("tx1", "AssetContract:createProduct",
+                TransactionTracker.COMMITTED, 4L, 0, null);
+        when(fabricService.getTransactionStatus("tx1")).thenReturn(committed);
+
+        ResponseEntity<Object> known = controller.getTransactionStatus("tx1");
+        assertEquals(HttpStatus.OK, known.getStatusCode());
+        assertEquals(committed, known.getBody());
+
+        ResponseEntity<Object> unknown = controller.getTransactionStatus("tx9");
+        assertEquals(HttpStatus.NOT_FOUND, unknown.getStatusCode());
+        assertTrue(((Map<?, ?>) unknown.getBody()).get(Constants.ERROR).toString().contains("tx9"));
+    }
+
+    @Test
+    @DisplayName("v2 media type embeds the ledger bytes unchanged, v1 keeps the JSON-in-a-string body")
+    void rawJsonEmbedsLedgerBytes() throws Exception {
+        byte[] ledger = "{\"productId\":\"p1\",\"productName\":\"Caf\u00e9 \\\"Noir\\\"\",\"quantity\":3}"
+                .getBytes(StandardCharsets.UTF_8);
+        when(fabricService.readProduct("p1")).thenReturn(ledger);
+
+        ResponseEntity<?> v2 = controller.queryAsset("p1", Constants.RAW_JSON_MEDIA_TYPE);
+        assertEquals(HttpStatus.OK, v2.getStatusCode());
+        assertEquals(MediaType.parseMediaType(Constants.RAW_JSON_MEDIA_TYPE), v2.getHeaders().getContentType());
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write("{\"product\":".getBytes(StandardCharsets.UTF_8));
+        expected.write(ledger);
+        expected.write('}');
+        assertArrayEquals(expected.toByteArray(), (byte[]) v2.getBody());
+
+        ResponseEntity<?> v1 = controller.queryAsset("p1", MediaType.APPLICATION_JSON_VALUE);
+        assertEquals(Map.of(Constants.PRODUCT_KEY, new String(ledger, StandardCharsets.UTF_8)), v1.getBody());
+    }
+
+    @Test
+    @DisplayName("v2 media type answers an empty ledger value with null")
+    void rawJsonEmptyValueIsNull() throws Exception {
+        when(fabricService.getShipment("s1")).thenReturn(new byte[0]);
+        ResponseEntity<?> v2 = controller.queryShipment("s1", "application/json, " + Constants.RAW_JSON_MEDIA_TYPE);
+        assertEquals("{\"shipment\":null}", new String((byte[]) v2.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("shipment and audit log failures get the status of their error code, not a fixed 400 or 404")
+    void shipmentAndLogErrorsUseErrorCodes() throws Exception {
+        when(fabricService.getShipment("s1")).thenThrow(new FabricServiceException(ErrorCode.UNAVAILABLE, "no peers"));
+        when(fabricService.getShipment("s2")).thenThrow(new FabricServiceException(ErrorCode.NOT_FOUND, "Shipment s2 does not exist"));
+        when(fabricService.updateShipmentStatus("s1", "DELIVERED"))
+                .thenThrow(new FabricServiceException(ErrorCode.MVCC_CONFLICT, "MVCC_READ_CONFLICT"));
+        when(fabricService.createShipment("s1", "p1", "A", "B", "DHL", "2"))
+                .thenThrow(new FabricServiceException(ErrorCode.ALREADY_EXISTS, "Shipment s1 already exists"));
+        when(fabricService.getAuditLogByProductId("p1")).thenThrow(new ContractException("Product p1 does not exist"));
+        when(fabricService.getAuditLogByProductId("p2")).thenThrow(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE,
+                "Service Unavailable", HttpHeaders.EMPTY, "{}".getBytes(), StandardCharsets.UTF_8));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.queryShipment("s1", null).getStatusCode());
+        ResponseEntity<?> missing = controller.queryShipment("s2", null);
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+        assertEquals(Constants.SHIPMENT_NOT_FOUND, ((Map<?, ?>) missing.getBody()).get(Constants.ERROR));
+        assertEquals(HttpStatus.CONFLICT, controller.updateShipment("s1", Map.of(Constants.STATUS, "DELIVERED"), null).getStatusCode());
+        ResponseEntity<Map<String, String>> exists = controller.createShipment(Map.of(Constants.SHIPMENT_ID, "s1",
+                Constants.PRODUCT_ID, "p1", Constants.ORIGIN, "A", Constants.DESTINATION, "B", Constants.CARRIER, "DHL",
+                Constants.QUANTITY, "2"), null);
+        assertEquals(HttpStatus.CONFLICT, exists.getStatusCode());
+        assertEquals(ErrorCode.ALREADY_EXISTS.name(), exists.getBody().get(Constants.CODE));
+        assertEquals(HttpStatus.NOT_FOUND, controller.getLogByProductId("p1", null, null, null).getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.getLogByProductId("p2", null, null, null).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("placeOrder decodes the chaincode answer as UTF-8")
+    void placeOrderIsUtf8() throws Exception {
+        when(fabricService.placeOrder("p1", "2")).thenReturn("Order placed: Caf\u00e9".getBytes(StandardCharsets.UTF_8));
+        ResponseEntity<Map<String, String>> response = controller.placeOrder(Map.of(Constants.PRODUCT_ID, "p1", Constants.QUANTITY, 2), null);
+        assertEquals("Order placed: Caf\u00e9", response.getBody().get(Constants.MESSAGE));
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.supplychainapp.conf;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorLogLimiterTest {
+    private LoggerContext context;
+    private ErrorLogLimiter limiter;
+    private ListAppender<ILoggingEvent> appender;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        limiter = new ErrorLogLimiter();
+        limiter.setContext(context);
+        limiter.setWindowMillis(200);
+        limiter.setMaxPerWindow(2);
+        limiter.start();
+        context.addTurboFilter(limiter);
+        appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(appender);
+        logger = context.getLogger("org.example.supplychainapp.service.FabricService");
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.stop();
+    }
+
+    private List<String> messages() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+
+    private void awaitEvents(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (appender.list.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("repeats beyond the per-window limit are dropped and summarized once the window is over")
+    void dropsRepeatsAndWritesSummary() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            logger.warn("Read failed for productId={}", "p" + i);
+        }
+        assertEquals(List.of("Read failed for productId=p0", "Read failed for productId=p1"), messages());
+
+        awaitEvents(3);
+        String summary = messages().get(2);
+        assertTrue(summary.startsWith("Suppressed 3 similar events in the last "), summary);
+        assertTrue(summary.endsWith(": Read failed for productId={}"), summary);
+    }
+
+    @Test
+    @DisplayName("the next window writes up to the limit again")
+    void windowRollsOver() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            logger.warn("Read failed for productId={}", "p" + i);
+        }
+        awaitEvents(3);
+
+        logger.warn("Read failed for productId={}", "p3");
+        logger.warn("Read failed for productId={}", "p4");
+        logger.warn("Read failed for productId={}", "p5");
+        assertEquals(List.of("Read failed for productId=p3", "Read failed for productId=p4"), messages().subList(3, 5));
+        assertEquals(5, messages().size());
+    }
+
+    @Test
+    @DisplayName("different signatures and INFO lines are counted separately or not at all")
+    void signaturesAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            logger.warn("Read failed for productId={}", "p" + i);
+            logger.error("Submit failed", new IllegalStateException("boom"));
+            logger.info("Received request {}", i);
+        }
+        List<String> messages = messages();
+        assertEquals(2, messages.stream().filter(m -> m.startsWith("Read failed")).count());
+        assertEquals(2, messages.stream().filter(m -> m.equals("Submit failed")).count());
+        assertEquals(3, messages.stream().filter(m -> m.startsWith("Received request")).count());
+    }
+}
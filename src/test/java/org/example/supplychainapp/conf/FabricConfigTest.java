@@ -0,0 +1,123 @@
+package org.example.supplychainapp.conf;
+
+import org.example.supplychainapp.service.GatewayPool;
+import org.example.supplychainapp.service.LedgerConnection;
+import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.Gateway;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.sdk.Channel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FabricConfigTest {
+    private LedgerConnection connection;
+
+    @AfterEach
+    void tearDown() {
+        if (connection != null) {
+            connection.stop();
+        }
+    }
+
+    // Hands out the given gateways in order; a null entry fails the connect the way unreachable peers do
+    private static FabricConfig config(String identities, Gateway... gateways) {
+        List<Gateway> pending = Arrays.asList(gateways);
+        AtomicInteger next = new AtomicInteger();
+        FabricConfig config = new FabricConfig() {
+            @Override
+            Gateway connect(String identity) throws FabricConfigurationException {
+                Gateway gateway = pending.get(next.getAndIncrement());
+                if (gateway == null) {
+                    throw new FabricConfigurationException("Failed to initialize Fabric Gateway for identity " + identity,
+                            new IllegalStateException("UNAVAILABLE: connection refused"));
+                }
+                return gateway;
+            }
+        };
+        ReflectionTestUtils.setField(config, "user", "User1");
+        ReflectionTestUtils.setField(config, "poolIdentities", identities);
+        ReflectionTestUtils.setField(config, "connectionsPerIdentity", 1);
+        ReflectionTestUtils.setField(config, "channelName", "supplychainchannel");
+        ReflectionTestUtils.setField(config, "contractName", "SupplyChainContract");
+        return config;
+    }
+
+    private static Gateway gateway() {
+        Channel channel = mock(Channel.class);
+        Network network = mock(Network.class);
+        when(network.getChannel()).thenReturn(channel);
+        when(network.getContract(anyString())).thenReturn(mock(Contract.class));
+        Gateway gateway = mock(Gateway.class);
+        when(gateway.getNetwork(anyString())).thenReturn(network);
+        return gateway;
+    }
+
+    private static GatewayPool pool() {
+        return new GatewayPool(new GatewayPool.Settings(0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("a failed first connect reaches the retry loop and readiness with its own message")
+    void firstConnectFailureIsReported() throws Exception {
+        FabricConfig config = config("", null, null);
+        GatewayPool pool = pool();
+
+        FabricConfigurationException e = assertThrows(FabricConfigurationException.class, () -> config.connectPool(pool));
+        assertEquals("Failed to initialize Fabric Gateway for identity User1", e.getMessage());
+        assertFalse(pool.isReady());
+
+        connection = new LedgerConnection(() -> config.connectPool(pool), 10_000, 10_000);
+        connection.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (connection.stats().get("lastError") == null && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals("Failed to initialize Fabric Gateway for identity User1", connection.stats().get("lastError"));
+    }
+
+    @Test
+    @DisplayName("when a later member fails, every gateway opened so far is closed and the cause rethrown")
+    void openedGatewaysAreClosedOnFailure() {
+        Gateway first = gateway();
+        Gateway second = mock(Gateway.class);
+        IllegalStateException cause = new IllegalStateException("channel supplychainchannel not found");
+        when(second.getNetwork(anyString())).thenThrow(cause);
+        RuntimeException closeError = new RuntimeException("close failed");
+        doThrow(closeError).when(second).close();
+        FabricConfig config = config("User1,User2", first, second);
+        GatewayPool pool = pool();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> config.connectPool(pool));
+
+        assertSame(cause, e);
+        assertEquals(List.of(closeError), List.of(e.getSuppressed()));
+        verify(first).close();
+        verify(second).close();
+        assertFalse(pool.isReady());
+    }
+
+    @Test
+    @DisplayName("a pool of two identities attaches both members and returns the first as primary")
+    void poolAttachesEveryMember() throws Exception {
+        Gateway first = gateway();
+        Gateway second = gateway();
+        FabricConfig config = config("User1,User2", first, second);
+        GatewayPool pool = pool();
+
+        LedgerConnection.Connected connected = config.connectPool(pool);
+
+        assertEquals(2, pool.size());
+        assertSame(first.getNetwork("supplychainchannel"), connected.network());
+        verify(first, never()).close();
+    }
+}
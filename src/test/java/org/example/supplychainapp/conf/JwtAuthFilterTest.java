@@ -0,0 +1,110 @@
+package org.example.supplychainapp.conf;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthFilterTest {
+    private static final String SECRET = "test-secret-that-is-long-enough-for-hs256-signing";
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+    private final JwtAuthFilter filter = new JwtAuthFilter(SECRET, "Authorization", "Bearer ", 30, 100, 300);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static JwtBuilder token(String subject) {
+        return Jwts.builder().subject(subject).expiration(new Date(System.currentTimeMillis() + 60_000));
+    }
+
+    // Runs the filter for one request and returns the authentication the rest of the chain saw
+    private static Authentication authenticate(JwtAuthFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/fabric/assets/queryProduct/p1");
+        request.addHeader("Authorization", "Bearer " + token);
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> seen.set(SecurityContextHolder.getContext().getAuthentication()));
+        SecurityContextHolder.clearContext();
+        return seen.get();
+    }
+
+    private static List<String> roles(Authentication authentication) {
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    @Test
+    @DisplayName("a valid token authenticates its subject, and the cached repeat does too")
+    void validTokenAuthenticates() throws Exception {
+        String jwt = token("alice").claim("role", "admin").signWith(KEY).compact();
+        for (int i = 0; i < 2; i++) {
+            Authentication authentication = authenticate(filter, jwt);
+            assertNotNull(authentication);
+            assertEquals("alice", authentication.getPrincipal());
+            assertEquals(List.of("ROLE_ADMIN"), roles(authentication));
+        }
+    }
+
+    @Test
+    @DisplayName("role and roles claims map to ROLE_ authorities without doubling the prefix")
+    void roleClaimsMapToAuthorities() throws Exception {
+        String jwt = token("bob").claim("roles", List.of("user", "ROLE_ADMIN", " ")).signWith(KEY).compact();
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"), roles(authenticate(filter, jwt)));
+
+        String none = token("carol").signWith(KEY).compact();
+        assertEquals(List.of(), roles(authenticate(filter, none)));
+    }
+
+    @Test
+    @DisplayName("tampered, foreign-key, subject-less and expired tokens leave the request unauthenticated")
+    void invalidTokensAreRejected() throws Exception {
+        String jwt = token("alice").claim("role", "user").signWith(KEY).compact();
+        String[] parts = jwt.split("\\.");
+        String elevated = Jwts.builder().subject("alice").claim("role", "admin").signWith(KEY).compact().split("\\.")[1];
+        assertNull(authenticate(filter, parts[0] + "." + elevated + "." + parts[2]));
+
+        SecretKey other = Keys.hmacShaKeyFor("another-secret-that-is-long-enough-for-hs256".getBytes(StandardCharsets.UTF_8));
+        assertNull(authenticate(filter, token("alice").signWith(other).compact()));
+        assertNull(authenticate(filter, Jwts.builder().claim("role", "admin").signWith(KEY).compact()));
+
+        String expired = Jwts.builder().subject("alice").expiration(new Date(System.currentTimeMillis() - 120_000))
+                .signWith(KEY).compact();
+        assertNull(authenticate(filter, expired));
+        assertNull(authenticate(filter, "not-a-jwt"));
+    }
+
+    @Test
+    @DisplayName("a cached token stays valid through the clock skew after exp and no longer")
+    void cacheHitHonoursClockSkew() throws Exception {
+        JwtAuthFilter skewed = new JwtAuthFilter(SECRET, "Authorization", "Bearer ", 2, 100, 300);
+        // Warm up the parser so the first check below is not slower than the skew
+        assertNotNull(authenticate(skewed, token("warmup").signWith(KEY).compact()));
+        // exp has second precision: 1-2 s ago, inside the 2 s skew
+        long exp = System.currentTimeMillis() / 1000 * 1000 - 1000;
+        String jwt = Jwts.builder().subject("alice").expiration(new Date(exp)).signWith(KEY).compact();
+
+        assertNotNull(authenticate(skewed, jwt));
+        // Served from the cache: before the fix this compared against exp without the skew
+        assertNotNull(authenticate(skewed, jwt));
+
+        Thread.sleep(Math.max(0, exp + 2_000 - System.currentTimeMillis()) + 50);
+        assertNull(authenticate(skewed, jwt));
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.supplychainapp.conf;
+
+import org.example.supplychainapp.service.GatewayPool;
+import org.example.supplychainapp.service.LedgerConnection;
+import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LedgerHealthIndicatorTest {
+    private LedgerConnection connection;
+    private GatewayPool pool;
+    private LedgerHealthIndicator indicator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        connection = Mockito.mock(LedgerConnection.class);
+        when(connection.stats()).thenReturn(Map.of("attempts", 1));
+        pool = new GatewayPool(List.of(new GatewayPool.Member("User1#1", Mockito.mock(Contract.class), null),
+                new GatewayPool.Member("User2#1", Mockito.mock(Contract.class), null)), new GatewayPool.Settings(0, 1, 60_000));
+        ObjectProvider<LedgerConnection> connections = Mockito.mock(ObjectProvider.class);
+        when(connections.getIfAvailable()).thenReturn(connection);
+        ObjectProvider<GatewayPool> pools = Mockito.mock(ObjectProvider.class);
+        when(pools.getIfAvailable()).thenReturn(pool);
+        indicator = new LedgerHealthIndicator(connections, pools);
+    }
+
+    @Test
+    @DisplayName("up without a local ledger connection")
+    @SuppressWarnings("unchecked")
+    void upWithoutConnection() {
+        LedgerHealthIndicator remote = new LedgerHealthIndicator(Mockito.mock(ObjectProvider.class), Mockito.mock(ObjectProvider.class));
+        assertEquals(Status.UP, remote.health().getStatus());
+    }
+
+    @Test
+    @DisplayName("out of service until connected, then up while a pool member is healthy")
+    void followsConnection() {
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+
+        when(connection.isConnected()).thenReturn(true);
+        Health health = indicator.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(2, health.getDetails().get("poolHealthy"));
+    }
+
+    @Test
+    @DisplayName("out of service again once every pool member is ejected")
+    void outOfServiceWhenPoolEjected() {
+        when(connection.isConnected()).thenReturn(true);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ContractException.class, () -> pool.execute(c -> {
+                throw new ContractException("UNAVAILABLE: io exception");
+            }));
+        }
+
+        Health health = indicator.health();
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+        assertEquals(0, health.getDetails().get("poolHealthy"));
+        assertEquals(2, health.getDetails().get("poolSize"));
+    }
+}
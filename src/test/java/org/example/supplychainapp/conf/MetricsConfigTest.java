@@ -0,0 +1,39 @@
+package org.example.supplychainapp.conf;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.example.supplychainapp.service.LedgerReadCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsConfigTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricsConfig config = new MetricsConfig();
+
+    @Test
+    @DisplayName("both read caches are published under their own cache name")
+    void readCachesAreBound() {
+        LedgerReadCache cache = new LedgerReadCache(true, 100, 30);
+        config.ledgerReadCacheMetrics(cache).bindTo(registry);
+        cache.putProduct("p1", new byte[] {1}, cache.version("p1"));
+
+        assertEquals(1.0, registry.get("cache.size").tag("cache", "ledger.cache.product").gauge().value());
+        assertEquals(0.0, registry.get("cache.size").tag("cache", "ledger.cache.shipment").gauge().value());
+    }
+
+    @Test
+    @DisplayName("the remote connection pool limits are published under supplychain-remote")
+    void remotePoolIsBound() {
+        try (PoolingHttpClientConnectionManager manager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(7)
+                .build()) {
+            config.remoteConnectionPoolMetrics(manager).bindTo(registry);
+
+            assertEquals(7.0, registry.get("httpcomponents.httpclient.pool.total.max")
+                    .tag("httpclient", "supplychain-remote").gauge().value());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.supplychainapp.conf;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+    private static final RateLimitFilter.Budget ONE_PER_SECOND = new RateLimitFilter.Budget(1, 1);
+    private static final RateLimitFilter.Budget UNLIMITED = new RateLimitFilter.Budget(1_000_000, 1_000);
+
+    private RateLimitFilter filter;
+
+    @AfterEach
+    void tearDown() {
+        if (filter != null) {
+            filter.destroy();
+        }
+    }
+
+    // Sweeps only when the test calls sweep()
+    private RateLimitFilter filter(RateLimitFilter.Budget write, RateLimitFilter.Budget read, int maxCallers) {
+        filter = new RateLimitFilter(write, read, UNLIMITED, maxCallers, 3600, Set.of("10.0.0.99"));
+        return filter;
+    }
+
+    private MockHttpServletResponse call(String method, String path, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    @DisplayName("a caller gets its burst, then 429 with Retry-After and the RATE_LIMITED code")
+    void burstThenDeny() throws Exception {
+        filter(new RateLimitFilter.Budget(0.1, 3), UNLIMITED, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, call("POST", "/fabric/assets/createProduct", "10.0.0.1").getStatus());
+        }
+        MockHttpServletResponse denied = call("POST", "/fabric/assets/createProduct", "10.0.0.1");
+
+        assertEquals(429, denied.getStatus());
+        // One request per 10 s: the next token is about 10 s away
+        long retryAfter = Long.parseLong(denied.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(retryAfter >= 9 && retryAfter <= 10, "Retry-After " + retryAfter);
+        assertTrue(denied.getContentAsString().contains("\"RATE_LIMITED\""));
+        assertTrue(denied.getContentAsString().contains("write requests"));
+    }
+
+    @Test
+    @DisplayName("budgets are per caller and per group, and actuator and exempt addresses are never limited")
+    void bucketsArePerCallerAndGroup() throws Exception {
+        filter(ONE_PER_SECOND, ONE_PER_SECOND, 100);
+
+        assertEquals(200, call("POST", "/fabric/assets/createProduct", "10.0.0.1").getStatus());
+        assertEquals(429, call("POST", "/fabric/assets/createProduct", "10.0.0.1").getStatus());
+        assertEquals(200, call("GET", "/fabric/assets/queryProduct/p1", "10.0.0.1").getStatus());
+        assertEquals(200, call("POST", "/fabric/assets/createProduct", "10.0.0.2").getStatus());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, call("GET", "/actuator/health", "10.0.0.1").getStatus());
+            assertEquals(200, call("POST", "/fabric/assets/createProduct", "10.0.0.99").getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("placeOrder is limited with the write budget, not the other group")
+    void placeOrderIsAWrite() throws Exception {
+        filter(ONE_PER_SECOND, UNLIMITED, 100);
+
+        assertEquals(200, call("POST", "/fabric/assets/placeOrder", "10.0.0.1").getStatus());
+        MockHttpServletResponse denied = call("POST", "/fabric/assets/placeOrder", "10.0.0.1");
+
+        assertEquals(429, denied.getStatus());
+        assertTrue(denied.getContentAsString().contains("write requests"));
+    }
+
+    @Test
+    @DisplayName("callers beyond maxCallers share one overflow bucket per group")
+    void newCallersShareOverflowBucket() throws Exception {
+        filter(ONE_PER_SECOND, ONE_PER_SECOND, 1);
+
+        assertEquals(200, call("POST", "/fabric/assets/createProduct", "10.0.0.1").getStatus());
+        assertEquals(1, filter.trackedCallers());
+        // Both newcomers land in the write overflow bucket: the first takes its only token
+        assertEquals(200, call("POST", "/fabric/assets/createProduct", "10.0.0.2").getStatus());
+        assertEquals(429, call("POST", "/fabric/assets/createProduct", "10.0.0.3").getStatus());
+        // The read group has an overflow bucket of its own
+        assertEquals(200, call("GET", "/fabric/assets/queryProduct/p1", "10.0.0.3").getStatus());
+        assertEquals(1, filter.trackedCallers());
+    }
+
+    @Test
+    @DisplayName("the sweep evicts buckets that have refilled and keeps those still draining")
+    void sweepEvictsRefilledBuckets() throws Exception {
+        filter(new RateLimitFilter.Budget(0.1, 1), new RateLimitFilter.Budget(1_000, 1), 100);
+
+        call("POST", "/fabric/assets/createProduct", "10.0.0.1");
+        call("GET", "/fabric/assets/queryProduct/p1", "10.0.0.1");
+        assertEquals(2, filter.trackedCallers());
+
+        // The read bucket refills after 1 ms, the write bucket only after 10 s
+        Thread.sleep(20);
+        filter.sweep();
+
+        assertEquals(1, filter.trackedCallers());
+        assertEquals(429, call("POST", "/fabric/assets/createProduct", "10.0.0.1").getStatus());
+    }
+}
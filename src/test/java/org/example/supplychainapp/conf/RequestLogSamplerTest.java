@@ -0,0 +1,50 @@
+package org.example.supplychainapp.conf;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MarkerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogSamplerTest {
+    private final Logger logger = new LoggerContext().getLogger("org.example.supplychainapp.SupplyChainController");
+
+    @Test
+    @DisplayName("rate 0 drops every request line and rate 1 keeps every one")
+    void rateBounds() {
+        RequestLogSampler sampler = new RequestLogSampler();
+        sampler.setRate(0);
+        assertEquals(FilterReply.DENY, sampler.decide(RequestLogSampler.REQUEST, logger, Level.INFO, "Received request {}", null, null));
+        sampler.setRate(1.0);
+        assertEquals(FilterReply.NEUTRAL, sampler.decide(RequestLogSampler.REQUEST, logger, Level.INFO, "Received request {}", null, null));
+    }
+
+    @Test
+    @DisplayName("isEnabled checks and lines without the request marker are never sampled")
+    void passesThroughEnabledChecksAndOtherLines() {
+        RequestLogSampler sampler = new RequestLogSampler();
+        sampler.setRate(0);
+        // isInfoEnabled(REQUEST) arrives with a null format
+        assertEquals(FilterReply.NEUTRAL, sampler.decide(RequestLogSampler.REQUEST, logger, Level.INFO, null, null, null));
+        assertEquals(FilterReply.NEUTRAL, sampler.decide(null, logger, Level.INFO, "Connected", null, null));
+        assertEquals(FilterReply.NEUTRAL, sampler.decide(MarkerFactory.getMarker("OTHER"), logger, Level.INFO, "Connected", null, null));
+    }
+
+    @Test
+    @DisplayName("a fractional rate keeps roughly that share of request lines")
+    void fractionalRateSamples() {
+        RequestLogSampler sampler = new RequestLogSampler();
+        sampler.setRate(0.25);
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (sampler.decide(RequestLogSampler.REQUEST, logger, Level.INFO, "Received request {}", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertTrue(kept > 2_000 && kept < 3_000, "kept " + kept);
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.supplychainapp.conf;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestTemplateConfigTest {
+
+    // Values unlike the defaults, so a hard-coded limit shows up as a mismatch
+    private static RestTemplateConfig config() {
+        RestTemplateConfig config = new RestTemplateConfig();
+        ReflectionTestUtils.setField(config, "maxTotal", 17);
+        ReflectionTestUtils.setField(config, "maxPerRoute", 5);
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 1234L);
+        ReflectionTestUtils.setField(config, "readTimeoutMs", 4321L);
+        ReflectionTestUtils.setField(config, "connectionTtlSeconds", 42L);
+        ReflectionTestUtils.setField(config, "validateAfterInactivityMs", 750L);
+        return config;
+    }
+
+    @Test
+    @DisplayName("the remote pool sizes come from supplychain.remote.pool.*")
+    void poolLimitsComeFromProperties() {
+        try (PoolingHttpClientConnectionManager manager = config().remoteConnectionManager()) {
+            assertEquals(17, manager.getMaxTotal());
+            assertEquals(5, manager.getDefaultMaxPerRoute());
+        }
+    }
+
+    @Test
+    @DisplayName("connect, socket, TTL and validate-after-inactivity come from properties")
+    void connectionConfigComesFromProperties() {
+        ConnectionConfig connection = config().remoteConnectionConfig();
+        assertEquals(Timeout.ofMilliseconds(1234), connection.getConnectTimeout());
+        assertEquals(Timeout.ofMilliseconds(4321), connection.getSocketTimeout());
+        assertEquals(TimeValue.ofSeconds(42), connection.getTimeToLive());
+        assertEquals(TimeValue.ofMilliseconds(750), connection.getValidateAfterInactivity());
+    }
+}
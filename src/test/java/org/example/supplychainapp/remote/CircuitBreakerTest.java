@@ -0,0 +1,59 @@
+package org.example.supplychainapp.remote;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    @Test
+    @DisplayName("circuit opens after the failure threshold and rejects calls")
+    void opensAfterThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 60_000);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.rejected());
+    }
+
+    @Test
+    @DisplayName("a success resets the consecutive failure count")
+    void successResetsFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 60_000);
+        breaker.tryAcquire();
+        breaker.onFailure();
+        breaker.tryAcquire();
+        breaker.onSuccess();
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    @DisplayName("after the open period one probe is let through and its success closes the circuit")
+    void probeClosesCircuit() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    @DisplayName("a failed probe opens the circuit again")
+    void failedProbeReopens() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.tryAcquire();
+        breaker.onFailure();
+        breaker.tryAcquire();
+        assertTrue(breaker.onFailure());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+}
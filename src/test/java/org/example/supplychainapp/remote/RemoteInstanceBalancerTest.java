@@ -0,0 +1,69 @@
+package org.example.supplychainapp.remote;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RemoteInstanceBalancerTest {
+    private RemoteInstanceBalancer balancer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        DiscoveryClient discoveryClient = Mockito.mock(DiscoveryClient.class);
+        when(discoveryClient.getInstances("supplychain-service")).thenReturn(List.of(
+                new DefaultServiceInstance("a", "supplychain-service", "10.0.0.1", 8085, false),
+                new DefaultServiceInstance("b", "supplychain-service", "10.0.0.2", 8085, false)));
+        ObjectProvider<DiscoveryClient> provider = Mockito.mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(discoveryClient);
+        balancer = new RemoteInstanceBalancer(provider,
+                new RemoteInstanceBalancer.Settings("supplychain-service", "peak-ewma", 60_000, 3, 60_000));
+    }
+
+    @Test
+    @DisplayName("alternative picks the other discovered instance and keeps path and query")
+    void alternativePicksOtherInstance() {
+        URI alt = balancer.alternative(URI.create("http://10.0.0.1:8085/fabric/assets/queryProduct/p1?x=1"));
+        assertEquals(URI.create("http://10.0.0.2:8085/fabric/assets/queryProduct/p1?x=1"), alt);
+    }
+
+    @Test
+    @DisplayName("stats list every discovered instance")
+    void statsListInstances() {
+        balancer.alternative(URI.create("http://10.0.0.1:8085/"));
+        Map<?, ?> instances = (Map<?, ?>) balancer.stats().get("instances");
+        assertEquals(2, instances.size());
+    }
+
+    @Test
+    @DisplayName("an instance is ejected after consecutive failures, never when ejection is off")
+    void ejectionFollowsSettings() {
+        PeakEwmaStats instance = new PeakEwmaStats("http://10.0.0.1:8085");
+        assertFalse(instance.failure(3, 60_000));
+        assertFalse(instance.failure(3, 60_000));
+        assertFalse(instance.isEjected(System.nanoTime()));
+        assertTrue(instance.failure(3, 60_000));
+        assertTrue(instance.isEjected(System.nanoTime()));
+        assertFalse(instance.failure(3, 60_000), "already ejected");
+        instance.success(1_000_000);
+        assertFalse(instance.isEjected(System.nanoTime()));
+
+        PeakEwmaStats unguarded = new PeakEwmaStats("http://10.0.0.2:8085");
+        for (int i = 0; i < 10; i++) {
+            assertFalse(unguarded.failure(0, 60_000));
+        }
+        assertFalse(unguarded.isEjected(System.nanoTime()));
+        assertEquals(10, unguarded.consecutiveFailures());
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.supplychainapp.remote;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RemoteResilienceInterceptorTest {
+    private static final URI PRIMARY = URI.create("http://first:8085/fabric/assets/queryProduct/p1");
+    private static final URI SECOND = URI.create("http://second:8085/fabric/assets/queryProduct/p1");
+
+    private final CountDownLatch releasePrimary = new CountDownLatch(1);
+    private final List<URI> hedgeRequests = new CopyOnWriteArrayList<>();
+    private RemoteResilienceInterceptor interceptor;
+
+    @AfterEach
+    void tearDown() {
+        releasePrimary.countDown();
+        if (interceptor != null) {
+            interceptor.shutdown();
+        }
+    }
+
+    // Hedging on queryProduct after 50 ms (no latency history yet); the second instance answers with hedgeCall
+    private RemoteResilienceInterceptor interceptor(HedgeCall hedgeCall) {
+        ClientHttpRequestFactory factory = (uri, method) -> {
+            hedgeRequests.add(uri);
+            return new MockClientHttpRequest(method, uri) {
+                @Override
+                protected ClientHttpResponse executeInternal() throws IOException {
+                    return hedgeCall.execute();
+                }
+            };
+        };
+        interceptor = new RemoteResilienceInterceptor(factory, new SimpleMeterRegistry(),
+                new RemoteResilienceInterceptor.Settings(5, 60_000, Set.of("queryProduct"), 0.95, 10, 50),
+                RemoteResilienceInterceptor.fixedHedgeTarget("http://second:8085"), false);
+        return interceptor;
+    }
+
+    @FunctionalInterface
+    private interface HedgeCall {
+        ClientHttpResponse execute() throws IOException;
+    }
+
+    private static ClientHttpResponse ok(String body) {
+        return spy(new MockClientHttpResponse(body.getBytes(), HttpStatus.OK));
+    }
+
+    private static Map<?, ?> hedging(RemoteResilienceInterceptor interceptor) {
+        return (Map<?, ?>) interceptor.stats().get("hedging");
+    }
+
+    @Test
+    @DisplayName("a primary that answers within the hedge delay is used without a second request")
+    void fastPrimaryIsNotHedged() throws Exception {
+        ClientHttpResponse primary = ok("first");
+        interceptor(() -> fail("no hedge expected"));
+        ClientHttpRequestExecution execution = (request, body) -> primary;
+
+        assertSame(primary, interceptor.intercept(new MockClientHttpRequest(HttpMethod.GET, PRIMARY), new byte[0], execution));
+        assertTrue(hedgeRequests.isEmpty());
+        assertEquals(0L, hedging(interceptor).get("issued"));
+    }
+
+    @Test
+    @DisplayName("a slow primary is hedged after the delay, the first answer wins and the loser is closed")
+    void slowPrimaryIsHedgedAndLoserClosed() throws Exception {
+        ClientHttpResponse primary = ok("first");
+        ClientHttpResponse second = ok("second");
+        interceptor(() -> second);
+        ClientHttpRequestExecution execution = (request, body) -> {
+            try {
+                releasePrimary.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return primary;
+        };
+
+        long start = System.nanoTime();
+        ClientHttpResponse response = interceptor.intercept(new MockClientHttpRequest(HttpMethod.GET, PRIMARY), new byte[0], execution);
+        assertSame(second, response);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50), "hedge sent before the delay");
+        assertEquals(List.of(SECOND), hedgeRequests);
+        assertEquals(1L, hedging(interceptor).get("issued"));
+        assertEquals(1L, hedging(interceptor).get("won"));
+
+        releasePrimary.countDown();
+        verify(primary, timeout(5000)).close();
+        verify(second, never()).close();
+    }
+
+    @Test
+    @DisplayName("a failed primary fails over to the second instance without waiting for the delay")
+    void failedPrimaryFailsOver() throws Exception {
+        ClientHttpResponse second = ok("second");
+        interceptor(() -> second);
+        ClientHttpRequestExecution execution = (request, body) -> {
+            throw new IOException("Connection refused");
+        };
+
+        assertSame(second, interceptor.intercept(new MockClientHttpRequest(HttpMethod.GET, PRIMARY), new byte[0], execution));
+        assertEquals(1L, hedging(interceptor).get("won"));
+    }
+
+    @Test
+    @DisplayName("when both attempts fail the caller gets an IOException")
+    void bothAttemptsFail() {
+        interceptor(() -> {
+            throw new IOException("second down");
+        });
+        ClientHttpRequestExecution execution = (request, body) -> {
+            throw new IOException("first down");
+        };
+
+        IOException e = assertThrows(IOException.class,
+                () -> interceptor.intercept(new MockClientHttpRequest(HttpMethod.GET, PRIMARY), new byte[0], execution));
+        assertTrue(e.getMessage().endsWith("down"));
+        assertEquals(1L, hedging(interceptor).get("issued"));
+        assertEquals(0L, hedging(interceptor).get("won"));
+    }
+
+    @Test
+    @DisplayName("writes and endpoints outside the hedged set are only guarded by the circuit breaker")
+    void onlyConfiguredGetsAreHedged() throws Exception {
+        interceptor(() -> fail("no hedge expected"));
+        ClientHttpRequestExecution execution = (request, body) -> {
+            throw new IOException("down");
+        };
+
+        assertThrows(IOException.class, () -> interceptor.intercept(
+                new MockClientHttpRequest(HttpMethod.POST, URI.create("http://first:8085/fabric/assets/createProduct")),
+                new byte[0], execution));
+        assertThrows(IOException.class, () -> interceptor.intercept(
+                new MockClientHttpRequest(HttpMethod.GET, URI.create("http://first:8085/fabric/assets/queryShipment/s1")),
+                new byte[0], execution));
+        assertTrue(hedgeRequests.isEmpty());
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.supplychainapp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedFanOutTest {
+
+    @Test
+    @DisplayName("on platform threads no more than parallelism tasks run at once and results keep the input order")
+    void platformThreadsAreBounded() {
+        assertBoundedAndOrdered(false);
+    }
+
+    @Test
+    @DisplayName("on virtual threads no more than parallelism tasks run at once and results keep the input order")
+    void virtualThreadsAreBounded() {
+        assertBoundedAndOrdered(true);
+    }
+
+    private static void assertBoundedAndOrdered(boolean virtualThreads) {
+        BoundedFanOut fanOut = new BoundedFanOut("fan-out-test-", 3, virtualThreads);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try {
+            List<Integer> items = IntStream.range(0, 30).boxed().toList();
+            List<Integer> results = fanOut.map(items, i -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                return i * 2;
+            }, i -> -1);
+
+            assertEquals(IntStream.range(0, 30).map(i -> i * 2).boxed().toList(), results);
+            assertTrue(peak.get() <= 3, "peak " + peak.get());
+            assertTrue(peak.get() > 1, "tasks never overlapped");
+        } finally {
+            fanOut.shutdown();
+        }
+    }
+}
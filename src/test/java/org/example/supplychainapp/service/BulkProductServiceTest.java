@@ -0,0 +1,61 @@
+package org.example.supplychainapp.service;
+
+import org.example.supplychainapp.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BulkProductServiceTest {
+    private FabricService fabricServiceMock;
+    private BulkProductService bulkProductService;
+
+    @BeforeEach
+    void setUp() {
+        fabricServiceMock = Mockito.mock(FabricService.class);
+        bulkProductService = new BulkProductService(fabricServiceMock, 4, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkProductService.shutdown();
+    }
+
+    private static Product product(String id) {
+        Product p = new Product();
+        p.setProductId(id);
+        p.setProductName("name-" + id);
+        p.setCategory("cat");
+        p.setQuantity(5);
+        return p;
+    }
+
+    @Test
+    @DisplayName("createProducts reports per-item outcomes in input order")
+    void createProductsReportsPerItemOutcomes() throws Exception {
+        when(fabricServiceMock.createProduct(eq("1"), anyString(), anyString(), anyString())).thenReturn(new byte[0]);
+        when(fabricServiceMock.createProduct(eq("2"), anyString(), anyString(), anyString()))
+                .thenThrow(new ProductAlreadyExistsException("exists"));
+        when(fabricServiceMock.createProduct(eq("3"), anyString(), anyString(), anyString()))
+                .thenThrow(new FabricServiceException("boom"));
+        Product invalid = product("4");
+        invalid.setQuantity(null);
+
+        List<Map<String, String>> results = bulkProductService.createProducts(List.of(product("1"), product("2"), product("3"), invalid));
+
+        assertEquals(4, results.size());
+        assertEquals(BulkProductService.STATUS_CREATED, results.get(0).get("status"));
+        assertEquals(BulkProductService.STATUS_ALREADY_EXISTS, results.get(1).get("status"));
+        assertEquals(BulkProductService.STATUS_FAILED, results.get(2).get("status"));
+        assertEquals("boom", results.get(2).get("error"));
+        assertEquals(BulkProductService.STATUS_FAILED, results.get(3).get("status"));
+        verify(fabricServiceMock, never()).createProduct(eq("4"), anyString(), anyString(), anyString());
+    }
+}
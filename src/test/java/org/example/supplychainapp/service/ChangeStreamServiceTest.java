@@ -0,0 +1,200 @@
+package org.example.supplychainapp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChangeStreamServiceTest {
+    private final CountDownLatch sendGate = new CountDownLatch(1);
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private ChangeStreamService service;
+
+    @AfterEach
+    void tearDown() {
+        sendGate.countDown();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    // No heartbeat; every emitter is a RecordingEmitter, blocked on sendGate when blockSends is set
+    private ChangeStreamService service(int maxClients, int queueCapacity, boolean blockSends) {
+        service = new ChangeStreamService(mock(LedgerView.class), maxClients, queueCapacity, 60_000, 0, false) {
+            @Override
+            SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter(blockSends ? sendGate : null);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        return service;
+    }
+
+    // Keeps the rendered SSE frames instead of writing them to a response
+    private static final class RecordingEmitter extends SseEmitter {
+        final List<String> frames = new CopyOnWriteArrayList<>();
+        final AtomicInteger completions = new AtomicInteger();
+        final CountDownLatch gate;
+
+        RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StringBuilder frame = new StringBuilder();
+            items.forEach(item -> frame.append(item.getData()));
+            frames.add(frame.toString());
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            send(builder.build());
+        }
+
+        @Override
+        public void complete() {
+            completions.incrementAndGet();
+        }
+    }
+
+    private static LedgerView.Change product(String id, long block) {
+        return new LedgerView.Change(LedgerView.TYPE_PRODUCT, LedgerView.ACTION_UPDATED, id, id, null, block);
+    }
+
+    private static LedgerView.Change shipment(String id, String productId, long block) {
+        return new LedgerView.Change(LedgerView.TYPE_SHIPMENT, LedgerView.ACTION_UPDATED, id, productId, null, block);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(2);
+        }
+        assertTrue(condition.getAsBoolean(), "timed out");
+    }
+
+    @Test
+    @DisplayName("each client gets only the changes for its products, their shipments and its shipments")
+    void changesAreFilteredPerClient() throws Exception {
+        service(10, 16, false);
+        service.subscribe(Set.of(), Set.of());
+        service.subscribe(Set.of("p1"), Set.of());
+        service.subscribe(Set.of(), Set.of("s9"));
+        RecordingEmitter all = emitters.get(0);
+        RecordingEmitter p1 = emitters.get(1);
+        RecordingEmitter s9 = emitters.get(2);
+
+        service.publish(List.of(product("p1", 3), shipment("s1", "p1", 3), shipment("s9", "p2", 4), product("p2", 4)));
+
+        await(() -> all.frames.size() == 4 && p1.frames.size() == 2 && s9.frames.size() == 1);
+        assertTrue(p1.frames.get(0).contains("event:product") && p1.frames.get(0).contains("\"id\":\"p1\""));
+        assertTrue(p1.frames.get(1).contains("event:shipment") && p1.frames.get(1).contains("\"id\":\"s1\""));
+        assertTrue(s9.frames.get(0).contains("id:4") && s9.frames.get(0).contains("\"id\":\"s9\""));
+        assertEquals(4L, service.stats().get("eventsPublished"));
+    }
+
+    @Test
+    @DisplayName("a client whose queue overflows is sent an overflow event and disconnected")
+    void slowClientIsDisconnected() throws Exception {
+        service(10, 2, true);
+        service.subscribe(Set.of(), Set.of());
+        service.subscribe(Set.of("p9"), Set.of());
+        RecordingEmitter slow = emitters.get(0);
+
+        // One event held in send, two queued, the rest overflow
+        for (int i = 1; i <= 5; i++) {
+            service.publish(List.of(product("p1", i)));
+        }
+        assertEquals(1L, service.stats().get("slowDisconnects"));
+        assertEquals(1, service.stats().get("clients"));
+
+        sendGate.countDown();
+        await(() -> slow.completions.get() == 1);
+        assertTrue(slow.frames.stream().anyMatch(f -> f.contains("event:overflow")));
+        assertTrue(slow.frames.size() <= 2, "events sent after the overflow: " + slow.frames);
+    }
+
+    @Test
+    @DisplayName("an overflow during shutdown completes the client without throwing on the block event thread")
+    void overflowAfterShutdownDoesNotThrow() throws Exception {
+        service(10, 1, true);
+        service.subscribe(Set.of(), Set.of());
+        RecordingEmitter client = emitters.get(0);
+        // The drain of the first event is already scheduled and waits in send
+        service.publish(List.of(product("p1", 1)));
+
+        service.shutdown();
+        assertDoesNotThrow(() -> {
+            for (int i = 2; i <= 4; i++) {
+                service.publish(List.of(product("p1", i)));
+            }
+        });
+        assertEquals(1L, service.stats().get("slowDisconnects"));
+        assertTrue(client.completions.get() >= 2);
+    }
+
+    @Test
+    @DisplayName("concurrent subscribes never exceed the client limit, and a freed slot can be taken again")
+    void clientLimitHoldsUnderConcurrency() throws Exception {
+        service(5, 1, true);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < 50; i++) {
+                attempts.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        service.subscribe(Set.of(), Set.of());
+                        return true;
+                    } catch (IllegalStateException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int accepted = 0;
+            for (Future<Boolean> attempt : attempts) {
+                accepted += attempt.get(5, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertEquals(5, accepted);
+            assertEquals(5, service.stats().get("clients"));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThrows(IllegalStateException.class, () -> service.subscribe(Set.of(), Set.of()));
+
+        // Sends are blocked, so three events overflow every client and free all five slots
+        for (int i = 1; i <= 3; i++) {
+            service.publish(List.of(product("p1", i)));
+        }
+        assertEquals(0, service.stats().get("clients"));
+        assertDoesNotThrow(() -> service.subscribe(Set.of(), Set.of()));
+    }
+}
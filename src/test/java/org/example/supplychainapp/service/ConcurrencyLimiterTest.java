@@ -0,0 +1,60 @@
+package org.example.supplychainapp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    private static ConcurrencyLimiter limiter(int initial) {
+        return new ConcurrencyLimiter(new ConcurrencyLimiter.Settings(initial, 2, 100, 1.5, 1.0, 0.5));
+    }
+
+    @Test
+    @DisplayName("calls over the limit are rejected without waiting")
+    void rejectsOverLimit() {
+        ConcurrencyLimiter limiter = limiter(2);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.rejected());
+        limiter.release(1_000_000, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("the limit grows at steady latency and shrinks when latency climbs or calls are dropped")
+    void adaptsToLatency() {
+        ConcurrencyLimiter limiter = limiter(10);
+        for (int i = 0; i < 20; i++) {
+            fill(limiter);
+            releaseAll(limiter, 1_000_000);
+        }
+        int grown = limiter.limit();
+        assertTrue(grown > 10, "limit " + grown);
+
+        for (int i = 0; i < 20; i++) {
+            fill(limiter);
+            releaseAll(limiter, 20_000_000);
+        }
+        int shrunk = limiter.limit();
+        assertTrue(shrunk < grown, "limit " + shrunk + " after " + grown);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(1_000_000, true);
+        assertTrue(limiter.limit() <= shrunk / 2 + 1, "limit " + limiter.limit() + " after drop from " + shrunk);
+    }
+
+    private static void fill(ConcurrencyLimiter limiter) {
+        while (limiter.tryAcquire()) {
+            // take every permit so samples count as a fully used limit
+        }
+    }
+
+    private static void releaseAll(ConcurrencyLimiter limiter, long rttNanos) {
+        while (limiter.inFlight() > 0) {
+            limiter.release(rttNanos, false);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.supplychainapp.service;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorCodeTest {
+
+    @Test
+    @DisplayName("chaincode messages and transport errors are classified once and carried by the wrapper")
+    void classifiesCauseChain() {
+        FabricServiceException notFound = new FabricServiceException("Failed to read product: id=p1",
+                new ContractException("Product p1 does not exist"));
+        assertEquals(ErrorCode.NOT_FOUND, notFound.getCode());
+        // Expected outcomes are stackless
+        assertEquals(0, notFound.getStackTrace().length);
+        assertEquals(ErrorCode.NOT_FOUND, new FabricServiceException("outer", notFound).getCode());
+
+        assertEquals(ErrorCode.INSUFFICIENT_STOCK, ErrorCode.classify(
+                new ContractException("Insufficient stock for product p1: available=1, requested=5")));
+        assertEquals(ErrorCode.MVCC_CONFLICT, ErrorCode.classify(
+                new ContractException("Commit of transaction tx1 failed on peer0 with status MVCC_READ_CONFLICT")));
+
+        FabricServiceException unavailable = new FabricServiceException("Failed to read product: id=p1",
+                new ConnectException("Connection refused"));
+        assertEquals(ErrorCode.UNAVAILABLE, unavailable.getCode());
+        assertTrue(unavailable.getStackTrace().length > 0);
+        assertEquals(ErrorCode.FAILED, new FabricServiceException("boom").getCode());
+    }
+
+    @Test
+    @DisplayName("remote errors use the code from the body, else the status")
+    void classifiesRemoteErrors() {
+        HttpClientErrorException withCode = HttpClientErrorException.create(HttpStatus.CONFLICT, "Conflict", HttpHeaders.EMPTY,
+                "{\"error\":\"Failed to place order\",\"code\":\"INSUFFICIENT_STOCK\"}".getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8);
+        assertEquals(ErrorCode.INSUFFICIENT_STOCK, ErrorCode.classify(withCode));
+
+        HttpClientErrorException statusOnly = HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY,
+                "{}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        assertEquals(ErrorCode.NOT_FOUND, ErrorCode.classify(statusOnly));
+    }
+}
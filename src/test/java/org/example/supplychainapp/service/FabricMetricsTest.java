@@ -0,0 +1,94 @@
+package org.example.supplychainapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.spi.CommitHandler;
+import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FabricMetricsTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FabricMetrics metrics = new FabricMetrics(registry, true);
+
+    // Local mode with phase timing off, so submits go through Contract.submitTransaction
+    @SuppressWarnings("unchecked")
+    private static FabricService localService(Contract contract, FabricMetrics metrics) {
+        return new FabricService(GatewayPool.of(contract), false, "", false, "", Mockito.mock(RestTemplate.class),
+                new LedgerReadCache(true, 100, 30),
+                new TransactionTracker(Mockito.mock(ObjectProvider.class), 10, 1000),
+                new WriteSequencer(true, 16, 2, 1, 5, metrics),
+                new LoadShedder(true, 50, 500, 20, 200, 4, 1.5, 0.2, 0.9, 1, metrics), metrics);
+    }
+
+    private long transactions(String function, String endpoint, String outcome) {
+        return registry.get(FabricMetrics.TRANSACTION_TIMER)
+                .tags("function", function, "mode", FabricMetrics.MODE_LOCAL, "endpoint", endpoint, "outcome", outcome)
+                .timer().count();
+    }
+
+    @Test
+    @DisplayName("every FabricService call is timed under its function, mode, endpoint and outcome")
+    void transactionTimerIsTaggedPerCall() throws Exception {
+        Contract contract = Mockito.mock(Contract.class);
+        when(contract.evaluateTransaction(anyString(), eq("p1"))).thenReturn("{\"productId\":\"p1\"}".getBytes());
+        when(contract.evaluateTransaction(anyString(), eq("p2"))).thenThrow(new ContractException("Product p2 does not exist"));
+        when(contract.submitTransaction(anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenThrow(new ContractException("Product p3 already exists"));
+        FabricService service = localService(contract, new FabricMetrics(registry, false));
+
+        service.readProduct("p1");
+        assertThrows(FabricServiceException.class, () -> service.readProduct("p2"));
+        assertThrows(FabricServiceException.class, () -> service.createProduct("p3", "n", "c", "1"));
+
+        assertEquals(1, transactions("AssetContract:readProduct", "queryProduct", FabricMetrics.OUTCOME_SUCCESS));
+        assertEquals(1, transactions("AssetContract:readProduct", "queryProduct", FabricMetrics.OUTCOME_NOT_FOUND));
+        assertEquals(1, transactions("AssetContract:createProduct", "createProduct", FabricMetrics.OUTCOME_CONFLICT));
+        assertEquals(3, registry.get(FabricMetrics.TRANSACTION_TIMER).timers().size());
+    }
+
+    @Test
+    @DisplayName("failures are tagged not-found, conflict or error from the chaincode message or remote status")
+    void outcomeClassification() {
+        assertEquals(FabricMetrics.OUTCOME_NOT_FOUND, FabricMetrics.classify(new ContractException("Product p1 does not exist")));
+        assertEquals(FabricMetrics.OUTCOME_NOT_FOUND,
+                FabricMetrics.classify(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null)));
+        assertEquals(FabricMetrics.OUTCOME_CONFLICT, FabricMetrics.classify(new ContractException("Product p1 already exists")));
+        assertEquals(FabricMetrics.OUTCOME_CONFLICT,
+                FabricMetrics.classify(new RuntimeException(new ContractException("transaction invalidated: MVCC_READ_CONFLICT"))));
+        assertEquals(FabricMetrics.OUTCOME_ERROR, FabricMetrics.classify(new ContractException("endorsement failed")));
+        assertEquals(FabricMetrics.OUTCOME_ERROR, FabricMetrics.classify(new RuntimeException()));
+    }
+
+    @Test
+    @DisplayName("the phase timer records endorse and commit even when waiting for the commit fails")
+    void phaseTimerRecordsBothPhasesOnCommitFailure() throws Exception {
+        CommitHandler handler = Mockito.mock(CommitHandler.class);
+        doThrow(new ContractException("commit timed out")).when(handler).waitForEvents(anyLong(), any());
+        CommitHandlerFactory delegate = (transactionId, network) -> handler;
+        PhaseTimingCommitHandlerFactory factory = new PhaseTimingCommitHandlerFactory(metrics, "AssetContract:createProduct", delegate);
+
+        CommitHandler timed = factory.create("tx1", Mockito.mock(Network.class));
+        timed.startListening();
+        assertThrows(ContractException.class, () -> timed.waitForEvents(1, TimeUnit.SECONDS));
+
+        verify(handler).startListening();
+        for (String phase : new String[] {FabricMetrics.PHASE_ENDORSE, FabricMetrics.PHASE_COMMIT}) {
+            assertEquals(1, registry.get(FabricMetrics.PHASE_TIMER)
+                    .tags("function", "AssetContract:createProduct", "phase", phase).timer().count(), phase);
+        }
+    }
+}
@@ -1,12 +1,34 @@
 package org.example.supplychainapp.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.Transaction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -16,11 +38,42 @@ class FabricServiceTest {
     private RestTemplate restTemplateMock;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
         contractMock = Mockito.mock(Contract.class);
         restTemplateMock = Mockito.mock(RestTemplate.class);
-        // create FabricService with remoteEnabled=false to force local (contract) path
-        fabricService = new FabricService(contractMock, false, "", restTemplateMock);
+        fabricService = newService(new TransactionTracker(Mockito.mock(ObjectProvider.class), 10, 1000));
+    }
+
+    // remoteEnabled=false to force the local (contract) path
+    private FabricService newService(TransactionTracker tracker) {
+        return newService(tracker, 20);
+    }
+
+    private FabricService newService(TransactionTracker tracker, int writeLimit) {
+        FabricMetrics metrics = new FabricMetrics(new SimpleMeterRegistry(), false);
+        return new FabricService(GatewayPool.of(contractMock), false, "", false, "", restTemplateMock, new LedgerReadCache(true, 100, 30),
+                tracker,
+                new WriteSequencer(true, 16, 2, 1, 5, metrics),
+                new LoadShedder(true, 50, 500, writeLimit, 200, Math.min(4, writeLimit), 1.5, 0.2, 0.9, 1, metrics), metrics);
+    }
+
+    // A tracker whose block listener is registered, as once the ledger connection is up
+    @SuppressWarnings("unchecked")
+    private static TransactionTracker activeTracker() {
+        Network network = Mockito.mock(Network.class);
+        when(network.addBlockListener(any())).thenAnswer(inv -> inv.getArgument(0));
+        LedgerConnection connection = Mockito.mock(LedgerConnection.class);
+        doAnswer(inv -> {
+            inv.<Consumer<LedgerConnection.Connected>>getArgument(0)
+                    .accept(new LedgerConnection.Connected(network, Mockito.mock(Contract.class)));
+            return null;
+        }).when(connection).whenConnected(any());
+        ObjectProvider<LedgerConnection> provider = Mockito.mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(connection);
+        TransactionTracker tracker = new TransactionTracker(provider, 10, 1000);
+        tracker.register();
+        return tracker;
     }
 
     @Test
@@ -96,4 +149,240 @@ class FabricServiceTest {
         byte[] result = fabricService.updateShipmentStatus("sid", "status");
         assertArrayEquals(expected, result);
     }
+
+    @Test
+    @DisplayName("readProduct serves repeated reads from cache")
+    void readProductServedFromCache() throws Exception {
+        byte[] expected = "read".getBytes();
+        when(contractMock.evaluateTransaction(anyString(), anyString())).thenReturn(expected);
+        fabricService.readProduct("1");
+        byte[] result = fabricService.readProduct("1");
+        assertArrayEquals(expected, result);
+        verify(contractMock, times(1)).evaluateTransaction("AssetContract:readProduct", "1");
+    }
+
+    @Test
+    @DisplayName("updateProductQuantity invalidates the cached product")
+    void updateProductQuantityInvalidatesCache() throws Exception {
+        when(contractMock.evaluateTransaction(anyString(), anyString())).thenReturn("v1".getBytes(), "v2".getBytes());
+        when(contractMock.submitTransaction(anyString(), anyString(), anyString())).thenReturn("updated".getBytes());
+        fabricService.readProduct("1");
+        fabricService.updateProductQuantity("1", "10");
+        byte[] result = fabricService.readProduct("1");
+        assertArrayEquals("v2".getBytes(), result);
+        verify(contractMock, times(2)).evaluateTransaction("AssetContract:readProduct", "1");
+    }
+
+    @Test
+    @DisplayName("a write to another product does not discard a read of this one that is in flight")
+    void unrelatedWriteKeepsInFlightFill() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(contractMock.evaluateTransaction(anyString(), anyString())).thenAnswer(inv -> {
+            fetching.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "v1".getBytes();
+        });
+        when(contractMock.submitTransaction(anyString(), anyString(), anyString())).thenReturn("updated".getBytes());
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<byte[]> read = pool.submit(() -> fabricService.readProduct("1"));
+            assertTrue(fetching.await(5, TimeUnit.SECONDS));
+            fabricService.updateProductQuantity("2", "10");
+            release.countDown();
+            assertArrayEquals("v1".getBytes(), read.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertArrayEquals("v1".getBytes(), fabricService.readProduct("1"));
+        verify(contractMock, times(1)).evaluateTransaction("AssetContract:readProduct", "1");
+    }
+
+    @Test
+    @DisplayName("writes queued behind a hot product hold no write permit, so unrelated writes are not shed")
+    @SuppressWarnings("unchecked")
+    void hotKeyWritesDoNotShedOtherWrites() throws Exception {
+        FabricService limited = newService(new TransactionTracker(Mockito.mock(ObjectProvider.class), 10, 1000), 4);
+        CountDownLatch submitting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(contractMock.submitTransaction(eq("AssetContract:updateProductQuantity"), eq("hot"), anyString())).thenAnswer(inv -> {
+            submitting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "updated".getBytes();
+        });
+        when(contractMock.submitTransaction(eq("AssetContract:updateProductQuantity"), eq("cold"), anyString()))
+                .thenReturn("updated".getBytes());
+        int burst = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(burst);
+        try {
+            List<Future<byte[]>> hot = new ArrayList<>();
+            for (int i = 0; i < burst; i++) {
+                String quantity = Integer.toString(i);
+                hot.add(pool.submit(() -> limited.updateProductQuantity("hot", quantity)));
+            }
+            assertTrue(submitting.await(5, TimeUnit.SECONDS));
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((Long) limited.writeStats().get("sequencedWaits") < burst - 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals((long) burst - 1, limited.writeStats().get("sequencedWaits"));
+
+            // Seven writers wait on the hot product's lock, one is at the ledger: only that one counts
+            Map<?, ?> writes = (Map<?, ?>) limited.limitStats().get("writes");
+            assertEquals(1, writes.get("inFlight"));
+            assertArrayEquals("updated".getBytes(), limited.updateProductQuantity("cold", "1"));
+
+            release.countDown();
+            for (Future<byte[]> f : hot) {
+                assertArrayEquals("updated".getBytes(), f.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+        Map<?, ?> writes = (Map<?, ?>) limited.limitStats().get("writes");
+        assertEquals(0L, writes.get("rejected"));
+        assertEquals((long) burst + 1, writes.get("accepted"));
+    }
+
+    @Test
+    @DisplayName("getAuditLogPage streams only the requested slice with a next cursor")
+    void getAuditLogPageStreamsSlice() throws Exception {
+        byte[] log = "[{\"n\":0},{\"n\":1},{\"n\":2},{\"n\":3}]".getBytes();
+        when(contractMock.evaluateTransaction(anyString(), anyString())).thenReturn(log);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        fabricService.getAuditLogPage("p1", 1, 2).writeTo(out);
+        assertEquals("{\"productId\":\"p1\",\"cursor\":\"1\",\"entries\":[{\"n\":1},{\"n\":2}],\"nextCursor\":\"3\"}",
+                out.toString());
+    }
+
+    @Test
+    @DisplayName("concurrent audit-log reads for the same product share one ledger call")
+    void concurrentReadsAreCoalesced() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(contractMock.evaluateTransaction(anyString(), anyString())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "log".getBytes();
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> fabricService.getAuditLogByProductId("p1")));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!Long.valueOf(3).equals(fabricService.coalescingStats().get("auditLog"))
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<byte[]> f : results) {
+                assertArrayEquals("log".getBytes(), f.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(contractMock, times(1)).evaluateTransaction("AssetContract:getAuditLogsByProductId", "p1");
+        assertEquals(3L, fabricService.coalescingStats().get("auditLog"));
+    }
+
+    @Test
+    @DisplayName("placeOrder retries a submit invalidated by an MVCC read conflict")
+    void placeOrderRetriesMvccConflict() throws Exception {
+        when(contractMock.submitTransaction(anyString(), anyString(), anyString()))
+                .thenThrow(new ContractException("Commit of transaction tx1 failed on peer peer0 with status MVCC_READ_CONFLICT"))
+                .thenReturn("ordered".getBytes());
+        assertArrayEquals("ordered".getBytes(), fabricService.placeOrder("p1", "2"));
+        verify(contractMock, times(2)).submitTransaction("ShipmentContract:placeOrder", "p1", "2");
+        assertEquals(1L, fabricService.writeStats().get("recovered"));
+    }
+
+    @Test
+    @DisplayName("MVCC conflicts surface as failures once the retries are used up")
+    void mvccConflictRetriesAreBounded() throws Exception {
+        when(contractMock.submitTransaction(anyString(), anyString(), anyString()))
+                .thenThrow(new ContractException("MVCC_READ_CONFLICT"));
+        assertThrows(FabricServiceException.class, () -> fabricService.updateProductQuantity("p1", "5"));
+        verify(contractMock, times(3)).submitTransaction("AssetContract:updateProductQuantity", "p1", "5");
+        assertEquals(1L, fabricService.writeStats().get("exhausted"));
+    }
+
+    @Test
+    @DisplayName("an async submit returns its tx id at once and the block listener resolves it")
+    void asyncSubmitIsTrackedUntilCommitted() throws Exception {
+        TransactionTracker tracker = activeTracker();
+        FabricService service = newService(tracker);
+        Transaction transaction = Mockito.mock(Transaction.class);
+        when(contractMock.createTransaction("AssetContract:createProduct")).thenReturn(transaction);
+        when(transaction.setCommitHandler(any())).thenReturn(transaction);
+        when(transaction.getTransactionId()).thenReturn("tx1");
+
+        assertTrue(service.isAsyncSubmitSupported());
+        assertEquals("tx1", service.createProductAsync("p1", "Widget", "tools", "3"));
+        verify(transaction).submit("p1", "Widget", "tools", "3");
+        assertEquals(TransactionTracker.PENDING, service.getTransactionStatus("tx1").status());
+
+        tracker.onBlock(TransactionTrackerTest.block(4, "tx1", true, 0));
+        TransactionTracker.Status status = service.getTransactionStatus("tx1");
+        assertEquals(TransactionTracker.COMMITTED, status.status());
+        assertEquals(4L, status.blockNumber());
+    }
+
+    @Test
+    @DisplayName("an async submit the orderer refuses is reported as failed")
+    void asyncSubmitFailureIsRecorded() throws Exception {
+        FabricService service = newService(activeTracker());
+        Transaction transaction = Mockito.mock(Transaction.class);
+        when(contractMock.createTransaction("ShipmentContract:placeOrder")).thenReturn(transaction);
+        when(transaction.setCommitHandler(any())).thenReturn(transaction);
+        when(transaction.getTransactionId()).thenReturn("tx2");
+        when(transaction.submit(any(String[].class))).thenThrow(new ContractException("endorsement failed"));
+
+        assertThrows(FabricServiceException.class, () -> service.placeOrderAsync("p1", "2"));
+        TransactionTracker.Status status = service.getTransactionStatus("tx2");
+        assertEquals(TransactionTracker.FAILED, status.status());
+        assertEquals("endorsement failed", status.message());
+    }
+
+    @Test
+    @DisplayName("async submit is refused while commit events cannot be observed")
+    void asyncSubmitNeedsBlockListener() {
+        assertFalse(fabricService.isAsyncSubmitSupported());
+        assertThrows(FabricServiceException.class, () -> fabricService.createProductAsync("p1", "Widget", "tools", "3"));
+    }
+
+    // remoteEnabled=true with a fixed URL, so reads go through restTemplateMock
+    @SuppressWarnings("unchecked")
+    private FabricService remoteService() {
+        FabricMetrics metrics = new FabricMetrics(new SimpleMeterRegistry(), false);
+        return new FabricService(GatewayPool.of(contractMock), true, "http://remote:8085", false, "",
+                restTemplateMock, new LedgerReadCache(false, 1, 1), new TransactionTracker(Mockito.mock(ObjectProvider.class), 10, 1000),
+                new WriteSequencer(true, 16, 2, 1, 5, metrics),
+                new LoadShedder(true, 50, 500, 20, 200, 4, 1.5, 0.2, 0.9, 1, metrics), metrics);
+    }
+
+    @Test
+    @DisplayName("remote reads hand back the embedded ledger JSON as UTF-8 regardless of the platform charset")
+    void remoteReadIsUtf8() throws Exception {
+        FabricService remote = remoteService();
+        when(restTemplateMock.getForEntity("http://remote:8085/fabric/assets/queryProduct/p1", String.class))
+                .thenReturn(ResponseEntity.ok("{\"product\":\"{\\\"productName\\\":\\\"Caf\u00e9\\\"}\"}"));
+        assertArrayEquals("{\"productName\":\"Caf\u00e9\"}".getBytes(StandardCharsets.UTF_8), remote.readProduct("p1"));
+    }
+
+    @Test
+    @DisplayName("a remote error on an audit log page keeps its status instead of becoming not found")
+    void remoteAuditLogPageErrorKeepsStatus() {
+        FabricService remote = remoteService();
+        when(restTemplateMock.getRequestFactory()).thenReturn((uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            request.setResponse(new MockClientHttpResponse("{\"code\":\"UNAVAILABLE\"}".getBytes(), HttpStatus.SERVICE_UNAVAILABLE));
+            return request;
+        });
+
+        HttpStatusCodeException e = assertThrows(HttpStatusCodeException.class, () -> remote.getAuditLogPage("p1", 0, 10));
+
+        assertEquals(503, e.getStatusCode().value());
+        assertEquals(ErrorCode.UNAVAILABLE, ErrorCode.classify(e));
+    }
 }
@@ -0,0 +1,68 @@
+package org.example.supplychainapp.service;
+
+import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayPoolTest {
+    private Contract first;
+    private Contract second;
+    private GatewayPool pool;
+
+    @BeforeEach
+    void setUp() {
+        first = Mockito.mock(Contract.class);
+        second = Mockito.mock(Contract.class);
+        pool = new GatewayPool(List.of(new GatewayPool.Member("User1#1", first, null),
+                new GatewayPool.Member("User2#1", second, null)), new GatewayPool.Settings(0, 2, 60_000));
+    }
+
+    @Test
+    @DisplayName("a call is routed to the member with fewer calls in flight")
+    void routesToLeastLoadedMember() throws Exception {
+        pool.execute(outer -> {
+            // The outer call still holds its member, so the inner one must go to the other
+            Contract inner = pool.execute(c -> c);
+            assertNotSame(outer, inner);
+            return null;
+        });
+    }
+
+    @Test
+    @DisplayName("connection failures eject a member while chaincode errors do not")
+    void connectionFailuresEjectMember() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ContractException.class, () -> pool.execute(c -> {
+                throw new ContractException("chaincode says no");
+            }));
+        }
+        assertEquals(2, pool.stats().get("healthy"));
+
+        GatewayPool.ContractCall<String, ContractException> call = c -> {
+            if (c == first) {
+                throw new ContractException("UNAVAILABLE: io exception");
+            }
+            return "ok";
+        };
+        for (int i = 0; i < 4; i++) {
+            try {
+                pool.execute(call);
+            } catch (ContractException e) {
+                // calls routed to the failing member
+            }
+        }
+        Map<?, ?> members = (Map<?, ?>) pool.stats().get("members");
+        assertEquals(false, ((Map<?, ?>) members.get("User1#1")).get("healthy"));
+        assertEquals(1, pool.stats().get("healthy"));
+        assertEquals("ok", pool.execute(call));
+        assertEquals("ok", pool.execute(call));
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.supplychainapp.service;
+
+import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.Network;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerConnectionTest {
+    private final LedgerConnection.Connected connected =
+            new LedgerConnection.Connected(Mockito.mock(Network.class), Mockito.mock(Contract.class));
+    private LedgerConnection connection;
+
+    @AfterEach
+    void tearDown() {
+        if (connection != null) {
+            connection.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("failed connects are retried with doubling delays capped at the maximum")
+    void retriesWithBackoff() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch up = new CountDownLatch(1);
+        connection = new LedgerConnection(() -> {
+            if (calls.incrementAndGet() <= 3) {
+                throw new IllegalStateException("peer down " + calls.get());
+            }
+            return connected;
+        }, 20, 40);
+        connection.whenConnected(c -> up.countDown());
+
+        long start = System.nanoTime();
+        connection.start();
+        assertTrue(up.await(5, TimeUnit.SECONDS));
+
+        // Slept 20 + 40 + 40 ms between the four attempts
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(connection.isConnected());
+        assertEquals(4, connection.stats().get("attempts"));
+        assertNull(connection.stats().get("lastError"));
+    }
+
+    @Test
+    @DisplayName("listeners registered before the connect run in order on connect, later ones at once")
+    void whenConnectedOrdering() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        connection = new LedgerConnection(() -> {
+            release.await();
+            return connected;
+        }, 1, 1);
+        List<String> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch notified = new CountDownLatch(2);
+        connection.whenConnected(c -> {
+            seen.add("first");
+            notified.countDown();
+        });
+        connection.whenConnected(c -> {
+            throw new IllegalStateException("listener bug");
+        });
+        connection.whenConnected(c -> {
+            seen.add("second");
+            notified.countDown();
+        });
+
+        connection.start();
+        assertFalse(connection.isConnected());
+        assertTrue(seen.isEmpty());
+        release.countDown();
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("first", "second"), seen);
+
+        // Already connected: called back immediately on the registering thread
+        connection.whenConnected(c -> seen.add(Thread.currentThread().getName()));
+        assertEquals(Thread.currentThread().getName(), seen.get(2));
+    }
+}
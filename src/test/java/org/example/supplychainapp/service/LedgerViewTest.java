@@ -0,0 +1,190 @@
+package org.example.supplychainapp.service;
+
+import com.google.protobuf.ByteString;
+import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.protos.ledger.rwset.kvrwset.KvRwset;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.BlockInfo;
+import org.hyperledger.fabric.sdk.TxReadWriteSetInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LedgerViewTest {
+    private LedgerView view;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        view = new LedgerView(Mockito.mock(ObjectProvider.class), true, "basic",
+                "AssetContract:getAllProducts", "ShipmentContract:getAllShipments", 1, 5);
+    }
+
+    private static KvRwset.KVWrite put(String key, String json) {
+        return KvRwset.KVWrite.newBuilder().setKey(key).setValue(ByteString.copyFromUtf8(json)).build();
+    }
+
+    private static KvRwset.KVWrite delete(String key) {
+        return KvRwset.KVWrite.newBuilder().setKey(key).setIsDelete(true).build();
+    }
+
+    private static BlockEvent block(long number, KvRwset.KVWrite... writes) throws Exception {
+        return block(number, "basic", writes);
+    }
+
+    private static BlockEvent block(long number, String namespace, KvRwset.KVWrite... writes) throws Exception {
+        TxReadWriteSetInfo.NsRwsetInfo ns = mock(TxReadWriteSetInfo.NsRwsetInfo.class);
+        when(ns.getNamespace()).thenReturn(namespace);
+        when(ns.getRwset()).thenReturn(KvRwset.KVRWSet.newBuilder().addAllWrites(List.of(writes)).build());
+        TxReadWriteSetInfo rwSet = mock(TxReadWriteSetInfo.class);
+        when(rwSet.getNsRwsetInfos()).thenReturn(List.of(ns));
+        BlockInfo.TransactionEnvelopeInfo.TransactionActionInfo action =
+                mock(BlockInfo.TransactionEnvelopeInfo.TransactionActionInfo.class);
+        when(action.getTxReadWriteSet()).thenReturn(rwSet);
+        BlockEvent.TransactionEvent tx = mock(BlockEvent.TransactionEvent.class);
+        when(tx.isValid()).thenReturn(true);
+        when(tx.getTransactionActionInfos()).thenReturn(List.of(action));
+        BlockEvent event = mock(BlockEvent.class);
+        when(event.getBlockNumber()).thenReturn(number);
+        when(event.getTransactionEvents()).thenReturn(List.of(tx));
+        return event;
+    }
+
+    @Test
+    @DisplayName("product writes are indexed by category and quantity and carry the ledger height")
+    void productWritesAreIndexed() throws Exception {
+        view.onBlock(block(7,
+                put("p1", "{\"productId\":\"p1\",\"productName\":\"Widget\",\"category\":\"tools\",\"quantity\":3}"),
+                put("p2", "{\"productId\":\"p2\",\"productName\":\"Bolt\",\"category\":\"tools\",\"quantity\":50}"),
+                put("p3", "{\"productId\":\"p3\",\"productName\":\"Tea\",\"category\":\"food\",\"quantity\":1}")));
+
+        LedgerView.Snapshot<LedgerView.ProductEntry> tools = view.productsByCategory("tools");
+        assertEquals(List.of("p1", "p2"), tools.items().stream().map(LedgerView.ProductEntry::productId).toList());
+        assertEquals(8, tools.ledgerHeight());
+
+        LedgerView.Snapshot<LedgerView.ProductEntry> low = view.productsByQuantity(null, 5);
+        assertEquals(List.of("p3", "p1"), low.items().stream().map(LedgerView.ProductEntry::productId).toList());
+    }
+
+    @Test
+    @DisplayName("updates move a product between index buckets and deletes remove it")
+    void updatesAndDeletesMaintainIndexes() throws Exception {
+        view.onBlock(block(1, put("p1", "{\"productId\":\"p1\",\"category\":\"tools\",\"quantity\":3}")));
+        view.onBlock(block(2, put("p1", "{\"productId\":\"p1\",\"category\":\"tools\",\"quantity\":30}")));
+        assertTrue(view.productsByQuantity(null, 5).items().isEmpty());
+        assertEquals(1, view.productsByQuantity(10, null).items().size());
+
+        view.onBlock(block(3, delete("p1")));
+        assertTrue(view.productsByCategory("tools").items().isEmpty());
+    }
+
+    @Test
+    @DisplayName("shipment writes are indexed by status and carrier")
+    void shipmentWritesAreIndexed() throws Exception {
+        view.onBlock(block(1, put("s1",
+                "{\"shipmentId\":\"s1\",\"productId\":\"p1\",\"carrier\":\"DHL\",\"status\":\"CREATED\"}")));
+        view.onBlock(block(2, put("s1",
+                "{\"shipmentId\":\"s1\",\"productId\":\"p1\",\"carrier\":\"DHL\",\"status\":\"IN_TRANSIT\"}")));
+        assertTrue(view.shipmentsByStatus("CREATED").items().isEmpty());
+        assertEquals(1, view.shipmentsByStatus("IN_TRANSIT").items().size());
+        assertEquals(1, view.shipmentsByCarrier("DHL").items().size());
+    }
+
+    @Test
+    @DisplayName("change listeners get one change per written or deleted asset with its block number")
+    void changeListenersSeeBlockChanges() throws Exception {
+        List<LedgerView.Change> seen = new ArrayList<>();
+        view.addChangeListener(seen::addAll);
+        view.onBlock(block(4,
+                put("p1", "{\"productId\":\"p1\",\"category\":\"tools\",\"quantity\":3}"),
+                put("s1", "{\"shipmentId\":\"s1\",\"productId\":\"p1\",\"carrier\":\"DHL\",\"status\":\"CREATED\"}")));
+        view.onBlock(block(5, delete("s1")));
+
+        assertEquals(3, seen.size());
+        assertEquals(LedgerView.TYPE_PRODUCT, seen.get(0).type());
+        assertEquals("p1", seen.get(1).productId());
+        assertEquals(LedgerView.ACTION_DELETED, seen.get(2).action());
+        assertEquals(5, seen.get(2).blockNumber());
+    }
+
+    @Test
+    @DisplayName("deleting a composite index key or writing another namespace leaves the assets alone")
+    void compositeKeysAndOtherNamespacesAreIgnored() throws Exception {
+        view.onBlock(block(1,
+                put("p1", "{\"productId\":\"p1\",\"category\":\"tools\",\"quantity\":3}"),
+                put("s1", "{\"shipmentId\":\"s1\",\"productId\":\"p1\",\"carrier\":\"DHL\",\"status\":\"CREATED\"}")));
+        List<LedgerView.Change> seen = new ArrayList<>();
+        view.addChangeListener(seen::addAll);
+
+        view.onBlock(block(2, delete("\u0000idx\u0000p1\u0000s1\u0000")));
+        view.onBlock(block(3, "_lifecycle", delete("p1"),
+                put("p9", "{\"productId\":\"p9\",\"category\":\"tools\",\"quantity\":1}")));
+
+        assertTrue(seen.isEmpty());
+        assertEquals(List.of("p1"), view.productsByCategory("tools").items().stream()
+                .map(LedgerView.ProductEntry::productId).toList());
+        assertEquals(1, view.shipmentsByCarrier("DHL").items().size());
+        assertEquals(4, view.productsByCategory("tools").ledgerHeight());
+    }
+
+    @Test
+    @DisplayName("a failed initial load leaves the view unloaded and is retried until it succeeds")
+    @SuppressWarnings("unchecked")
+    void failedLoadIsRetried() throws Exception {
+        Network network = mock(Network.class, RETURNS_DEEP_STUBS);
+        when(network.getChannel().queryBlockchainInfo().getHeight()).thenReturn(12L);
+        Contract contract = mock(Contract.class);
+        AtomicBoolean peersDown = new AtomicBoolean(true);
+        when(contract.evaluateTransaction(anyString())).thenAnswer(inv -> {
+            if (peersDown.get()) {
+                throw new ContractException("no peers available");
+            }
+            return inv.getArgument(0, String.class).startsWith("Asset")
+                    ? "[{\"Key\":\"p1\",\"Record\":{\"productId\":\"p1\",\"category\":\"tools\",\"quantity\":3}}]".getBytes()
+                    : "[]".getBytes();
+        });
+        LedgerConnection connection = mock(LedgerConnection.class);
+        doAnswer(inv -> {
+            inv.<Consumer<LedgerConnection.Connected>>getArgument(0).accept(new LedgerConnection.Connected(network, contract));
+            return null;
+        }).when(connection).whenConnected(any());
+        ObjectProvider<LedgerConnection> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(connection);
+        LedgerView retrying = new LedgerView(provider, true, "basic",
+                "AssetContract:getAllProducts", "ShipmentContract:getAllShipments", 1, 5);
+
+        retrying.register();
+        try {
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while ((Integer) retrying.stats().get("loadAttempts") < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertTrue((Integer) retrying.stats().get("loadAttempts") >= 3);
+            assertFalse(retrying.isLoaded());
+            assertEquals("no peers available", retrying.stats().get("lastLoadError"));
+
+            peersDown.set(false);
+            while (!retrying.isLoaded() && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertTrue(retrying.isLoaded());
+            assertEquals(1, retrying.productsByCategory("tools").items().size());
+            assertEquals(12, retrying.productsByCategory("tools").ledgerHeight());
+            assertNull(retrying.stats().get("lastLoadError"));
+        } finally {
+            retrying.unregister();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.supplychainapp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MultiGetServiceTest {
+    private FabricService fabricServiceMock;
+    private MultiGetService multiGetService;
+
+    @BeforeEach
+    void setUp() {
+        fabricServiceMock = Mockito.mock(FabricService.class);
+        multiGetService = new MultiGetService(fabricServiceMock, 4, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        multiGetService.shutdown();
+    }
+
+    @Test
+    @DisplayName("readProducts reports found, not-found and failed ids once each in request order")
+    void readProductsReportsPerIdOutcomes() throws Exception {
+        when(fabricServiceMock.readProduct("1")).thenReturn("{\"productId\":\"1\"}".getBytes());
+        when(fabricServiceMock.readProduct("2"))
+                .thenThrow(new FabricServiceException("Failed to read product: id=2: Product 2 does not exist"));
+        when(fabricServiceMock.readProduct("3")).thenThrow(new FabricServiceException("io error"));
+
+        List<Map<String, String>> results = multiGetService.readProducts(List.of("1", "2", "1", "3"));
+
+        assertEquals(3, results.size());
+        assertEquals(MultiGetService.STATUS_FOUND, results.get(0).get("status"));
+        assertEquals("{\"productId\":\"1\"}", results.get(0).get("product"));
+        assertEquals(MultiGetService.STATUS_NOT_FOUND, results.get(1).get("status"));
+        assertEquals(MultiGetService.STATUS_FAILED, results.get(2).get("status"));
+        assertEquals("io error", results.get(2).get("error"));
+        verify(fabricServiceMock, times(1)).readProduct("1");
+    }
+}
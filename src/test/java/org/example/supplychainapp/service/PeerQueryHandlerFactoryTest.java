@@ -0,0 +1,163 @@
+package org.example.supplychainapp.service;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.spi.Query;
+import org.hyperledger.fabric.gateway.spi.QueryHandler;
+import org.hyperledger.fabric.protos.peer.FabricProposalResponse;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PeerQueryHandlerFactoryTest {
+    private PeerQueryHandlerFactory factory;
+    private Peer first;
+    private Peer second;
+    private QueryHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        factory = new PeerQueryHandlerFactory(new PeerQueryHandlerFactory.Settings(
+                PeerQueryHandlerFactory.SCOPE_CHANNEL, 60_000, 2, 60_000));
+        first = peer("peer0.org1");
+        second = peer("peer0.org2");
+        Channel channel = mock(Channel.class);
+        when(channel.getName()).thenReturn("mychannel");
+        when(channel.getPeers(any())).thenReturn(List.of(first, second));
+        Network network = mock(Network.class);
+        when(network.getChannel()).thenReturn(channel);
+        handler = factory.create(network);
+    }
+
+    private static Peer peer(String name) {
+        Peer peer = mock(Peer.class);
+        when(peer.getName()).thenReturn(name);
+        return peer;
+    }
+
+    private static ProposalResponse valid() {
+        ProposalResponse response = mock(ProposalResponse.class);
+        when(response.isInvalid()).thenReturn(false);
+        return response;
+    }
+
+    // An error the peer answered with: chaincode or peer-side, depending on the message. Like the SDK,
+    // which skips the signature check for invalid responses, it is never verified
+    private static ProposalResponse errorResponse(String message) {
+        ProposalResponse response = mock(ProposalResponse.class);
+        when(response.isInvalid()).thenReturn(true);
+        when(response.isVerified()).thenReturn(false);
+        when(response.getProposalResponse()).thenReturn(mock(FabricProposalResponse.ProposalResponse.class));
+        when(response.getMessage()).thenReturn(message);
+        return response;
+    }
+
+    // What the SDK returns when the peer could not be reached: failed, no proposal response
+    private static ProposalResponse unanswered() {
+        ProposalResponse response = mock(ProposalResponse.class);
+        when(response.isInvalid()).thenReturn(true);
+        when(response.getMessage()).thenReturn("UNAVAILABLE: io exception");
+        return response;
+    }
+
+    private Map<?, ?> peerStats(Peer peer) {
+        return (Map<?, ?>) ((Map<?, ?>) factory.stats().get("peers")).get(peer.getName());
+    }
+
+    @Test
+    @DisplayName("evaluates settle on the faster peer once both latencies are known")
+    void fasterPeerIsPreferred() throws Exception {
+        List<Peer> called = new ArrayList<>();
+        Query query = mock(Query.class);
+        when(query.evaluate(any(Peer.class))).thenAnswer(inv -> {
+            Peer peer = inv.getArgument(0);
+            called.add(peer);
+            if (peer == second) {
+                Thread.sleep(20);
+            }
+            return valid();
+        });
+
+        for (int i = 0; i < 20; i++) {
+            handler.evaluate(query);
+        }
+
+        assertTrue(called.stream().filter(p -> p == second).count() <= 2, "slow peer kept being chosen: " + called);
+        assertEquals(List.of(first), called.subList(10, 20).stream().distinct().toList());
+    }
+
+    @Test
+    @DisplayName("an unreachable peer fails over to the next one and is ejected after consecutive failures")
+    void unreachablePeerIsEjected() throws Exception {
+        ProposalResponse answer = valid();
+        Query query = mock(Query.class);
+        when(query.evaluate(first)).thenThrow(new ContractException("connection refused"));
+        when(query.evaluate(second)).thenReturn(answer);
+
+        for (int i = 0; i < 10; i++) {
+            assertSame(answer, handler.evaluate(query));
+        }
+
+        // Tried while its cost was lowest, skipped once ejected after two failures
+        verify(query, times(2)).evaluate(first);
+        assertEquals(true, peerStats(first).get("ejected"));
+        assertEquals(false, peerStats(second).get("ejected"));
+    }
+
+    @Test
+    @DisplayName("a peer without a proposal response counts as failed and the next peer answers")
+    void unansweredProposalFailsOver() throws Exception {
+        ProposalResponse answer = valid();
+        ProposalResponse unanswered = unanswered();
+        Query query = mock(Query.class);
+        when(query.evaluate(first)).thenReturn(unanswered);
+        when(query.evaluate(second)).thenReturn(answer);
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(answer, handler.evaluate(query));
+        }
+        assertTrue((Integer) peerStats(first).get("consecutiveFailures") >= 1);
+    }
+
+    @Test
+    @DisplayName("a chaincode error is returned from the first peer without failover and keeps it healthy")
+    void chaincodeErrorIsReturnedAtOnce() throws Exception {
+        ProposalResponse notFound = errorResponse("Product p1 does not exist");
+        Query query = mock(Query.class);
+        when(query.evaluate(any(Peer.class))).thenReturn(notFound);
+
+        for (int i = 0; i < 5; i++) {
+            assertSame(notFound, handler.evaluate(query));
+        }
+
+        verify(query, times(5)).evaluate(any(Peer.class));
+        for (Peer peer : List.of(first, second)) {
+            Map<?, ?> stats = peerStats(peer);
+            if (stats != null) {
+                assertEquals(0, stats.get("consecutiveFailures"));
+                assertEquals(false, stats.get("ejected"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("missing responses and peer-side rejections are peer failures, chaincode errors are not")
+    void classifiesErrorResponses() {
+        assertFalse(PeerQueryHandlerFactory.isPeerFailure(valid()));
+        assertFalse(PeerQueryHandlerFactory.isPeerFailure(errorResponse("Product p1 does not exist")));
+        assertTrue(PeerQueryHandlerFactory.isPeerFailure(unanswered()));
+        assertTrue(PeerQueryHandlerFactory.isPeerFailure(errorResponse("access denied: channel [mychannel] creator org [Org3MSP]")));
+        assertTrue(PeerQueryHandlerFactory.isPeerFailure(errorResponse(
+                "chaincode definition for 'basic' exists, but chaincode is not installed")));
+    }
+}
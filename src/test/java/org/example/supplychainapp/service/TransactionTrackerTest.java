@@ -0,0 +1,94 @@
+package org.example.supplychainapp.service;
+
+import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionTrackerTest {
+    private Network network;
+    private TransactionTracker tracker;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        network = Mockito.mock(Network.class);
+        LedgerConnection connection = Mockito.mock(LedgerConnection.class);
+        doAnswer(inv -> {
+            inv.<Consumer<LedgerConnection.Connected>>getArgument(0)
+                    .accept(new LedgerConnection.Connected(network, Mockito.mock(Contract.class)));
+            return null;
+        }).when(connection).whenConnected(any());
+        ObjectProvider<LedgerConnection> provider = Mockito.mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(connection);
+        tracker = new TransactionTracker(provider, 10, 1000);
+    }
+
+    static BlockEvent block(long number, String txId, boolean valid, int validationCode) {
+        BlockEvent.TransactionEvent tx = mock(BlockEvent.TransactionEvent.class);
+        when(tx.getTransactionID()).thenReturn(txId);
+        when(tx.isValid()).thenReturn(valid);
+        when(tx.getValidationCode()).thenReturn((byte) validationCode);
+        BlockEvent event = mock(BlockEvent.class);
+        when(event.getBlockNumber()).thenReturn(number);
+        when(event.getTransactionEvents()).thenReturn(List.of(tx));
+        return event;
+    }
+
+    @Test
+    @DisplayName("tracking starts once the ledger is connected and the block listener is registered")
+    void activeOnceListenerRegistered() {
+        assertFalse(tracker.isActive());
+        when(network.addBlockListener(any())).thenAnswer(inv -> inv.getArgument(0));
+        tracker.register();
+        assertTrue(tracker.isActive());
+        verify(network).addBlockListener(any());
+    }
+
+    @Test
+    @DisplayName("a tracked transaction is pending until a block resolves it to committed or invalid")
+    void blocksResolveTrackedTransactions() {
+        tracker.track("tx1", "AssetContract:createProduct");
+        tracker.track("tx2", "ShipmentContract:placeOrder");
+        assertEquals(TransactionTracker.PENDING, tracker.get("tx1").status());
+
+        tracker.onBlock(block(5, "tx1", true, 0));
+        tracker.onBlock(block(6, "tx2", false, 11));
+
+        TransactionTracker.Status committed = tracker.get("tx1");
+        assertEquals(TransactionTracker.COMMITTED, committed.status());
+        assertEquals(5L, committed.blockNumber());
+        assertEquals(0, committed.validationCode());
+        assertEquals("AssetContract:createProduct", committed.function());
+
+        TransactionTracker.Status invalid = tracker.get("tx2");
+        assertEquals(TransactionTracker.INVALID, invalid.status());
+        assertEquals(6L, invalid.blockNumber());
+        assertEquals(11, invalid.validationCode());
+    }
+
+    @Test
+    @DisplayName("untracked transactions in a block are ignored and failures keep the function")
+    void untrackedIgnoredAndFailuresRecorded() {
+        tracker.onBlock(block(1, "other", true, 0));
+        assertNull(tracker.get("other"));
+
+        tracker.track("tx1", "AssetContract:deleteProduct");
+        tracker.fail("tx1", "endorsement failed");
+        TransactionTracker.Status failed = tracker.get("tx1");
+        assertEquals(TransactionTracker.FAILED, failed.status());
+        assertEquals("AssetContract:deleteProduct", failed.function());
+        assertEquals("endorsement failed", failed.message());
+        assertNull(failed.blockNumber());
+    }
+}
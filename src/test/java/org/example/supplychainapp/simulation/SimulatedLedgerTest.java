@@ -0,0 +1,75 @@
+package org.example.supplychainapp.simulation;
+
+import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedLedgerTest {
+    private Contract contract;
+
+    @BeforeEach
+    void setUp() {
+        contract = new SimulatedLedger(0, 0, 0, 0).asContract();
+    }
+
+    @Test
+    @DisplayName("createProduct then readProduct returns the stored product")
+    void createThenRead() throws Exception {
+        contract.submitTransaction("AssetContract:createProduct", "p1", "Widget", "tools", "10");
+        String json = new String(contract.evaluateTransaction("AssetContract:readProduct", "p1"));
+        assertTrue(json.contains("\"productName\":\"Widget\""));
+        assertTrue(json.contains("\"quantity\":10"));
+    }
+
+    @Test
+    @DisplayName("createProduct twice reports already exists")
+    void createTwiceAlreadyExists() throws Exception {
+        contract.submitTransaction("AssetContract:createProduct", "p1", "Widget", "tools", "10");
+        ContractException ex = assertThrows(ContractException.class,
+                () -> contract.submitTransaction("AssetContract:createProduct", "p1", "Widget", "tools", "10"));
+        assertTrue(ex.getMessage().contains("already exists"));
+    }
+
+    @Test
+    @DisplayName("readProduct of unknown id reports does not exist")
+    void readUnknownNotFound() {
+        ContractException ex = assertThrows(ContractException.class,
+                () -> contract.evaluateTransaction("AssetContract:readProduct", "missing"));
+        assertTrue(ex.getMessage().contains("does not exist"));
+    }
+
+    @Test
+    @DisplayName("placeOrder decrements stock and rejects orders beyond it")
+    void placeOrderDecrementsStock() throws Exception {
+        contract.submitTransaction("AssetContract:createProduct", "p1", "Widget", "tools", "5");
+        contract.submitTransaction("ShipmentContract:placeOrder", "p1", "3");
+        String json = new String(contract.evaluateTransaction("AssetContract:readProduct", "p1"));
+        assertTrue(json.contains("\"quantity\":2"));
+        ContractException ex = assertThrows(ContractException.class,
+                () -> contract.submitTransaction("ShipmentContract:placeOrder", "p1", "3"));
+        assertTrue(ex.getMessage().contains("Insufficient stock"));
+    }
+
+    @Test
+    @DisplayName("audit log records every write for a product")
+    void auditLogHistory() throws Exception {
+        contract.submitTransaction("AssetContract:createProduct", "p1", "Widget", "tools", "5");
+        contract.submitTransaction("AssetContract:updateProductQuantity", "p1", "7");
+        contract.createTransaction("ShipmentContract:placeOrder").submit("p1", "1");
+        String json = new String(contract.evaluateTransaction("AssetContract:getAuditLogsByProductId", "p1"));
+        assertTrue(json.contains("\"action\":\"CREATE\""));
+        assertTrue(json.contains("\"action\":\"UPDATE\""));
+        assertTrue(json.contains("\"action\":\"ORDER\""));
+    }
+
+    @Test
+    @DisplayName("failure rate of 1 fails every call")
+    void failureRateInjectsErrors() {
+        Contract failing = new SimulatedLedger(0, 0, 0, 1.0).asContract();
+        assertThrows(ContractException.class, () -> failing.evaluateTransaction("AssetContract:readProduct", "p1"));
+    }
+}